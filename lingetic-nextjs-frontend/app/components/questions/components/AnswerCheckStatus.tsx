@@ -3,7 +3,7 @@ import type { FillInTheBlanksAttemptResponse, TranslationAttemptResponse } from
 import assert from "@/utilities/assert";
 import AnswerFeedbackBox from "./AnswerFeedbackBox";
 import DiffHighlight from "./DiffHighlight";
-import { CheckCircle2, XCircle } from "lucide-react";
+import { AlertCircle, CheckCircle2, XCircle } from "lucide-react";
 
 type TextAttemptResponse = FillInTheBlanksAttemptResponse | TranslationAttemptResponse;
 
@@ -50,6 +50,30 @@ export default function AnswerCheckStatus({
         );
     }
 
+    if (attemptResponse.attemptStatus === "NearMiss") {
+        return (
+            <AnswerFeedbackBox className="bg-amber-50 flex flex-col gap-2">
+                <p className="text-amber-700 text-lg flex items-center gap-2">
+                    <AlertCircle className="w-6 h-6" />
+                    Almost! Watch the spelling and word endings.
+                </p>
+                <p>
+                    Correct Answer:{" "}
+                    <span className="text-green-800">
+                        {attemptResponse.correctAnswer}
+                    </span>
+                </p>
+                <p>
+                    Difference:{" "}
+                    <DiffHighlight
+                        userAnswer={userAnswer}
+                        correctAnswer={attemptResponse.correctAnswer}
+                    />
+                </p>
+            </AnswerFeedbackBox>
+        );
+    }
+
     if (attemptResponse.attemptStatus === "Failure") {
         return (
             <AnswerFeedbackBox className="bg-red-50 flex flex-col gap-2">
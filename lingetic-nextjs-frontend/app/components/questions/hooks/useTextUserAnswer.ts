@@ -22,6 +22,7 @@ export default function useTextUserAnswer<Response extends TextResponse>(
       const attemptRequest = {
         sentenceID: question.sentenceID,
         questionType: question.questionType,
+        questionToken: question.questionToken,
         userResponse,
       };
 
@@ -102,6 +102,7 @@ export const languageNameToCode: Record<Language, string> = {
   Turkish: "tr",
   JapaneseModifiedHepburn: "ja-hepburn",
   German: "de",
+  Japanese: "ja",
 };
 
 export const languageIDToName: Record<string, string> = Object.fromEntries(
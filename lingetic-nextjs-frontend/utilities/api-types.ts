@@ -1,17 +1,20 @@
 export type QuestionType = "FillInTheBlanks" | "Translation";
 export type AssetType = "audio";
-export type AttemptStatus = "Success" | "Failure";
+export type AttemptStatus = "Success" | "NearMiss" | "Failure";
 export type Language =
   | "English"
   | "French"
   | "Turkish"
   | "Swedish"
   | "JapaneseModifiedHepburn"
-  | "German";
+  | "German"
+  | "Japanese";
 
 export interface QuestionDTO {
   sentenceID: string;
   questionType: QuestionType;
+  // Opaque; sent back with the attempt so the server can grade it without a lookup
+  questionToken?: string | null;
 }
 
 export interface FillInTheBlanksQuestionDTO extends QuestionDTO {
@@ -30,6 +33,7 @@ export interface TranslationQuestionDTO extends QuestionDTO {
 export interface AttemptRequest {
   questionType: QuestionType;
   sentenceID: string;
+  questionToken?: string | null;
 }
 
 export interface FillInTheBlanksAttemptRequest extends AttemptRequest {
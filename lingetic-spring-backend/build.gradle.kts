@@ -20,6 +20,48 @@ java {
 	}
 }
 
+// Offline tools that compile the lexicon sources into the resources the language models read
+val lexiconCompiler: SourceSet by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+	runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().runtimeClasspath
+}
+
+tasks.register<JavaExec>("compileJapaneseLexicon") {
+	group = "lexicons"
+	description = "Compiles src/main/resources/lexicons/japanese.tsv into japanese.dat."
+	classpath = lexiconCompiler.runtimeClasspath
+	mainClass.set("com.munetmo.lingetic.LanguageService.Entities.LanguageModels.JapaneseLexiconCompiler")
+	args("src/main/resources/lexicons/japanese.tsv", "src/main/resources/lexicons/japanese.dat")
+}
+
+tasks.register<JavaExec>("compileLemmaLexicon") {
+	group = "lexicons"
+	description = "Compiles the lemma lexicon source of the language given with -Planguage=<Language>."
+	// LanguageModel loads every model, and with it japanese.dat, so the resources are read from the source tree
+	classpath = files("src/main/resources") + lexiconCompiler.runtimeClasspath
+	mainClass.set("com.munetmo.lingetic.LanguageService.Entities.LanguageModels.LemmaLexiconCompiler")
+	mustRunAfter("compileJapaneseLexicon")
+	val language = providers.gradleProperty("language")
+	argumentProviders.add(CommandLineArgumentProvider {
+		val name = language.orNull ?: throw GradleException("Pass the language with -Planguage=<Language>, e.g. -Planguage=German")
+		val base = "src/main/resources/lexicons/${name.lowercase()}-lemmas"
+		listOf(name, "$base.tsv", "$base.dat")
+	})
+}
+
+// Timing harnesses for hot paths, run by hand; kept out of the application like the lexicon compilers
+val benchmarks: SourceSet by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+	runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().runtimeClasspath
+}
+
+tasks.register<JavaExec>("taskCodecBenchmark") {
+	group = "benchmarks"
+	description = "Compares the size and speed of the JSON and compact task codecs."
+	classpath = benchmarks.runtimeClasspath
+	mainClass.set("com.munetmo.lingetic.infra.tasks.TaskCodecBenchmark")
+}
+
 graalvmNative {
     binaries {
         named("main") {
@@ -0,0 +1,72 @@
+package com.munetmo.lingetic.infra.tasks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.munetmo.lingetic.LanguageTestService.DTOs.TaskPayloads.SentenceReviewProcessingPayload;
+import com.munetmo.lingetic.LanguageTestService.DTOs.TaskPayloads.SentenceReviewProcessingPayloadSchema;
+import com.munetmo.lingetic.LanguageTestService.Entities.AttemptStatus;
+import com.munetmo.lingetic.lib.tasks.CompactTaskCodec;
+import com.munetmo.lingetic.lib.tasks.Task;
+import com.munetmo.lingetic.lib.tasks.TaskCodec;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Compares the body size and encoding and decoding time of {@link JsonTaskCodec} and {@link CompactTaskCodec} for a
+ * typical sentence review task. Run it from the backend directory with:
+ * <pre>
+ * ./gradlew taskCodecBenchmark
+ * </pre>
+ * Each codec runs a few warm-up rounds before the measured one, so the numbers are for compiled code. It is a plain
+ * timing loop rather than a JMH benchmark, so treat small differences as noise. This is a tool in its own source
+ * set, so it isn't part of the application.
+ */
+final class TaskCodecBenchmark {
+    private static final int ITERATIONS = 2_000_000;
+    private static final int WARM_UP_ROUNDS = 2;
+
+    // Written by every iteration, so the work can't be optimized away
+    private static volatile @Nullable Object sink;
+
+    public static void main(String[] args) {
+        var userId = "user_2tXq8ZkVbLmN3pQrStUvWxYz0Ab";
+        var payload = new SentenceReviewProcessingPayload(userId, UUID.randomUUID().toString(), AttemptStatus.NearMiss);
+        var task = new Task<>(payload.taskID(1_760_700_000L), payload);
+
+        List<TaskCodec> codecs = List.of(
+            new JsonTaskCodec(new ObjectMapper()),
+            new CompactTaskCodec(List.of(new SentenceReviewProcessingPayloadSchema())));
+        for (var codec : codecs) {
+            var body = Objects.requireNonNull(codec.encode(task));
+            var decoded = codec.decode(body, SentenceReviewProcessingPayload.class);
+            if (!decoded.equals(task)) {
+                throw new IllegalStateException("%s decoded %s as %s".formatted(codec.contentType(), task, decoded));
+            }
+
+            for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+                encodeNanos(codec, task);
+                decodeNanos(codec, body);
+            }
+            System.out.printf("%-30s %4d bytes, encode %5.0f ns/op, decode %5.0f ns/op%n", codec.contentType(),
+                body.length, encodeNanos(codec, task) / (double) ITERATIONS, decodeNanos(codec, body) / (double) ITERATIONS);
+        }
+    }
+
+    private static long encodeNanos(TaskCodec codec, Task<?> task) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = codec.encode(task);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long decodeNanos(TaskCodec codec, byte[] body) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = codec.decode(body, SentenceReviewProcessingPayload.class);
+        }
+        return System.nanoTime() - start;
+    }
+}
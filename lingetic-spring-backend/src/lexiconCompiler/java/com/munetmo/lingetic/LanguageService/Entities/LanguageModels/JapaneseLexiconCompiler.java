@@ -0,0 +1,89 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Compiles the Japanese lexicon source into the binary file read by {@link JapaneseLexicon}.
+ * <p>
+ * The source is a tab-separated file of surface form, {@link JapaneseWordCategory} (lower case) and cost, one word
+ * per line; blank lines and lines starting with # are ignored. A lower cost makes the segmenter prefer the word.
+ * If a surface form is listed twice, the cheaper entry is kept. After editing the source, regenerate the resource
+ * from the backend directory with:
+ * <pre>
+ * ./gradlew compileJapaneseLexicon
+ * </pre>
+ * This is a build tool in its own source set, so it isn't part of the application.
+ */
+final class JapaneseLexiconCompiler {
+    private record Entry(JapaneseWordCategory category, short cost) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JapaneseLexiconCompiler <source.tsv> <output.dat>");
+            System.exit(2);
+        }
+
+        var words = parse(Files.readAllLines(Path.of(args[0]), StandardCharsets.UTF_8));
+        write(words, Path.of(args[1]));
+        System.out.printf("Compiled %d words%n", words.size());
+    }
+
+    private static TreeMap<String, Entry> parse(List<String> lines) {
+        var words = new TreeMap<String, Entry>();
+        for (int i = 0; i < lines.size(); i++) {
+            var line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            var fields = line.split("\t");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Line %d must have 3 tab-separated fields".formatted(i + 1));
+            }
+
+            var category = parseCategory(fields[1], i + 1);
+            int cost = Integer.parseInt(fields[2]);
+            if (cost < 0 || cost > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Line %d has a cost outside 0..%d".formatted(i + 1, Short.MAX_VALUE));
+            }
+
+            var entry = new Entry(category, (short) cost);
+            words.merge(fields[0], entry, (a, b) -> a.cost() <= b.cost() ? a : b);
+        }
+        return words;
+    }
+
+    private static JapaneseWordCategory parseCategory(String name, int line) {
+        for (var category : JapaneseWordCategory.values()) {
+            if (category.name().equalsIgnoreCase(name)) {
+                return category;
+            }
+        }
+        throw new IllegalArgumentException("Line %d has an unknown category %s".formatted(line, name));
+    }
+
+    private static void write(TreeMap<String, Entry> words, Path output) throws IOException {
+        var trie = new DoubleArrayTrieBuilder(List.copyOf(words.keySet()));
+
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            out.writeInt(JapaneseLexicon.MAGIC);
+            out.writeInt(JapaneseLexicon.VERSION);
+            out.writeInt(trie.slotCount());
+            out.writeInt(words.size());
+            trie.writeTo(out);
+            for (var entry : words.values()) {
+                out.writeShort(entry.cost());
+            }
+            for (var entry : words.values()) {
+                out.writeByte(entry.category().ordinal());
+            }
+        }
+    }
+}
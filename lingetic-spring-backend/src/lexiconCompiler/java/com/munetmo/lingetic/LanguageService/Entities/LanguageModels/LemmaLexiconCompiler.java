@@ -0,0 +1,108 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Compiles a lemma lexicon source into the binary file read by {@link LemmaLexicon}.
+ * <p>
+ * The source is a tab-separated file of inflected form and lemma, one pair per line; blank lines and lines
+ * starting with # are ignored. Every lemma is also a form of itself, so it needs no line of its own. Homographs
+ * are kept apart by tagging the lemma after a #, as in {@code sein#possessive}. Forms and lemmas are stored
+ * canonicalized by the language's model, so a lexicon has to be recompiled when the model's folding changes. After
+ * editing a source, regenerate its resource from the backend directory with:
+ * <pre>
+ * ./gradlew compileLemmaLexicon -Planguage=German
+ * </pre>
+ * Looking up one language model loads all of them, and the Japanese one reads its lexicon as it does, so the task
+ * puts src/main/resources on the classpath ahead of the build output. This is a build tool in its own source set, so
+ * it isn't part of the application.
+ */
+final class LemmaLexiconCompiler {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: LemmaLexiconCompiler <language> <source.tsv> <output.dat>");
+            System.exit(2);
+        }
+
+        var languageModel = LanguageModel.getLanguageModel(Language.valueOf(args[0]));
+        var forms = parse(languageModel, Files.readAllLines(Path.of(args[1]), StandardCharsets.UTF_8));
+        write(forms, Path.of(args[2]));
+        System.out.printf("Compiled %d forms%n", forms.size());
+    }
+
+    // Canonical form -> lemmas, each a canonical word with its tag, if any
+    private static TreeMap<String, TreeSet<String>> parse(LanguageModel languageModel, List<String> lines) {
+        var forms = new TreeMap<String, TreeSet<String>>();
+        for (int i = 0; i < lines.size(); i++) {
+            var line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            var fields = line.split("\t");
+            if (fields.length != 2) {
+                throw new IllegalArgumentException("Line %d must have 2 tab-separated fields".formatted(i + 1));
+            }
+
+            var form = canonicalWord(languageModel, fields[0], i + 1);
+            int tagStart = fields[1].indexOf('#');
+            var lemmaWord = canonicalWord(languageModel, tagStart < 0 ? fields[1] : fields[1].substring(0, tagStart), i + 1);
+            var lemma = tagStart < 0 ? lemmaWord : lemmaWord + fields[1].substring(tagStart);
+            forms.computeIfAbsent(form, f -> new TreeSet<>()).add(lemma);
+            forms.computeIfAbsent(lemmaWord, f -> new TreeSet<>()).add(lemma);
+        }
+        return forms;
+    }
+
+    private static String canonicalWord(LanguageModel languageModel, String word, int line) {
+        var canonical = languageModel.canonicalize(word);
+        if (canonical.isEmpty() || canonical.contains(" ")) {
+            throw new IllegalArgumentException("Line %d has '%s', which is not a single word".formatted(line, word));
+        }
+        return canonical;
+    }
+
+    private static void write(TreeMap<String, TreeSet<String>> forms, Path output) throws IOException {
+        // A lemma's id is its index in the sorted list of all lemmas
+        var allLemmas = new TreeSet<String>();
+        forms.values().forEach(allLemmas::addAll);
+        var lemmaIds = allLemmas.toArray(String[]::new);
+
+        var trie = new DoubleArrayTrieBuilder(List.copyOf(forms.keySet()));
+        int lemmaCount = forms.values().stream().mapToInt(TreeSet::size).sum();
+
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            out.writeInt(LemmaLexicon.MAGIC);
+            out.writeInt(LemmaLexicon.VERSION);
+            out.writeInt(trie.slotCount());
+            out.writeInt(forms.size());
+            out.writeInt(lemmaCount);
+            trie.writeTo(out);
+
+            int offset = 0;
+            for (var lemmas : forms.values()) {
+                out.writeInt(offset);
+                offset += lemmas.size();
+            }
+            out.writeInt(offset);
+
+            // Lemmas sort in the same order as their ids, so each form's ids are written in ascending order
+            for (var lemmas : forms.values()) {
+                for (var lemma : lemmas) {
+                    out.writeInt(Arrays.binarySearch(lemmaIds, lemma));
+                }
+            }
+        }
+    }
+}
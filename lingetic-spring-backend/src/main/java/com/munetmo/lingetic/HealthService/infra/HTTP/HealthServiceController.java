@@ -2,6 +2,8 @@ package com.munetmo.lingetic.HealthService.infra.HTTP;
 
 import java.util.Map;
 
+import com.munetmo.lingetic.lib.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,8 +12,16 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/health-service")
 public class HealthServiceController {
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
     @GetMapping("/wakeup")
     public ResponseEntity<Map<String, String>> wakeup() {
         return ResponseEntity.ok(Map.of("status", "OK"));
     }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Map<String, ? extends Number>>> metrics() {
+        return ResponseEntity.ok(metricsRegistry.snapshot());
+    }
 }
@@ -0,0 +1,13 @@
+package com.munetmo.lingetic.LanguageService.Entities;
+
+/**
+ * How leniently a language model compares answers. Every mode ignores case and surrounding punctuation.
+ */
+public enum FoldingMode {
+    // Letters must match exactly
+    Strict,
+    // Diacritics are ignored and letters without a decomposition are folded to their plain form: é = e, ß = ss
+    AccentInsensitive,
+    // Accepted alternative spellings of the same letter are equal, e.g. German ä = ae, French œ = oe
+    OrthographicVariants,
+}
@@ -8,4 +8,5 @@ public enum Language {
     Swedish,
     JapaneseModifiedHepburn,
     German,
+    Japanese,
 }
@@ -0,0 +1,121 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import java.util.Arrays;
+
+/**
+ * Optimal string alignment distance (Levenshtein plus transposition of adjacent characters) between two code point
+ * sequences, computed only up to a maximum k. Only the diagonal band of width 2k + 1 is filled and the computation
+ * stops as soon as a whole row exceeds k, so it runs in O(k·n). Each thread reuses one instance's buffers.
+ */
+final class BoundedEditDistance {
+    private static final ThreadLocal<BoundedEditDistance> scratch = ThreadLocal.withInitial(BoundedEditDistance::new);
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int NEAR_MISS_MIN_LENGTH = 5;
+    private static final int MAX_TYPOS = 3;
+
+    private int[] source = new int[INITIAL_CAPACITY];
+    private int[] target = new int[INITIAL_CAPACITY];
+    private int[] previousPreviousRow = new int[INITIAL_CAPACITY + 2];
+    private int[] previousRow = new int[INITIAL_CAPACITY + 2];
+    private int[] currentRow = new int[INITIAL_CAPACITY + 2];
+
+    private BoundedEditDistance() {
+    }
+
+    // Short answers get no tolerance since a single edit often makes a different word; longer ones get one more
+    // typo for every ten characters, up to three.
+    static int maxTyposFor(int canonicalLength) {
+        if (canonicalLength < NEAR_MISS_MIN_LENGTH) {
+            return 0;
+        }
+        return Math.min(MAX_TYPOS, 1 + (canonicalLength - NEAR_MISS_MIN_LENGTH) / 10);
+    }
+
+    static BoundedEditDistance forCurrentThread() {
+        return scratch.get();
+    }
+
+    int[] sourceBuffer(int capacity) {
+        if (source.length < capacity) {
+            source = new int[capacity];
+        }
+        return source;
+    }
+
+    int[] targetBuffer(int capacity) {
+        if (target.length < capacity) {
+            target = new int[capacity];
+        }
+        return target;
+    }
+
+    /**
+     * Distance between the first {@code sourceLength} code points of the source buffer and the first
+     * {@code targetLength} of the target buffer, or {@code maxDistance + 1} if it is larger than {@code maxDistance}.
+     */
+    int compute(int sourceLength, int targetLength, int maxDistance) {
+        int beyond = maxDistance + 1;
+        if (Math.abs(sourceLength - targetLength) > maxDistance) {
+            return beyond;
+        }
+
+        ensureRowCapacity(targetLength + 2);
+
+        int[] twoBack = previousPreviousRow;
+        int[] previous = previousRow;
+        int[] current = currentRow;
+
+        int firstRowEnd = Math.min(targetLength, maxDistance);
+        for (int j = 0; j <= firstRowEnd; j++) {
+            previous[j] = j;
+        }
+        previous[firstRowEnd + 1] = beyond;
+
+        for (int i = 1; i <= sourceLength; i++) {
+            int low = Math.max(1, i - maxDistance);
+            int high = Math.min(targetLength, i + maxDistance);
+
+            current[low - 1] = low == 1 ? Math.min(i, beyond) : beyond;
+            int rowMinimum = current[low - 1];
+            int sourceChar = source[i - 1];
+
+            for (int j = low; j <= high; j++) {
+                int targetChar = target[j - 1];
+                int substitution = previous[j - 1] + (sourceChar == targetChar ? 0 : 1);
+                int deletion = previous[j] + 1;
+                int insertion = current[j - 1] + 1;
+                int distance = Math.min(substitution, Math.min(deletion, insertion));
+
+                if (i > 1 && j > 1 && sourceChar == target[j - 2] && source[i - 2] == targetChar) {
+                    distance = Math.min(distance, twoBack[j - 2] + 1);
+                }
+
+                current[j] = Math.min(distance, beyond);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+
+            if (high < targetLength) {
+                current[high + 1] = beyond;
+            }
+
+            if (rowMinimum > maxDistance) {
+                return beyond;
+            }
+
+            int[] recycled = twoBack;
+            twoBack = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        return previous[targetLength];
+    }
+
+    private void ensureRowCapacity(int capacity) {
+        if (currentRow.length < capacity) {
+            previousPreviousRow = Arrays.copyOf(previousPreviousRow, capacity);
+            previousRow = Arrays.copyOf(previousRow, capacity);
+            currentRow = Arrays.copyOf(currentRow, capacity);
+        }
+    }
+}
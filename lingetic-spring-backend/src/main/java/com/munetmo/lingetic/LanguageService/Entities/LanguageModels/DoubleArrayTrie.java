@@ -0,0 +1,107 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Read-only double-array trie over views of a (typically memory-mapped) buffer, so lookups read the lexicon file
+ * directly instead of copying it onto the heap.
+ * <p>
+ * Characters are first mapped to dense codes through a table of all 65536 chars, code 0 meaning the character
+ * occurs in no key. From state {@code s}, the transition on code {@code c} leads to {@code t = base[s] + c} if
+ * {@code check[t] == s}. Code 0 is the end-of-key transition, and the base of the state it leads to holds
+ * {@code -(entry + 1)}. The root is state 1, so an unused slot's check of 0 never matches a state.
+ */
+final class DoubleArrayTrie {
+    static final int ROOT = 1;
+    static final int ALPHABET_SIZE = Character.MAX_VALUE + 1;
+    static final int NOT_FOUND = -1;
+
+    private final CharBuffer codes;
+    private final IntBuffer base;
+    private final IntBuffer check;
+    private final int slotCount;
+
+    @FunctionalInterface
+    interface PrefixConsumer {
+        void accept(int end, int entry);
+    }
+
+    /**
+     * Reads a trie with {@code slotCount} slots laid out as the code table, then the base array, then the check
+     * array, starting at the buffer's position.
+     */
+    DoubleArrayTrie(ByteBuffer buffer, int slotCount) {
+        int codesOffset = buffer.position();
+        int baseOffset = codesOffset + ALPHABET_SIZE * Character.BYTES;
+        int checkOffset = baseOffset + slotCount * Integer.BYTES;
+
+        this.codes = buffer.slice(codesOffset, ALPHABET_SIZE * Character.BYTES).order(buffer.order()).asCharBuffer();
+        this.base = buffer.slice(baseOffset, slotCount * Integer.BYTES).order(buffer.order()).asIntBuffer();
+        this.check = buffer.slice(checkOffset, slotCount * Integer.BYTES).order(buffer.order()).asIntBuffer();
+        this.slotCount = slotCount;
+    }
+
+    static int sizeInBytes(int slotCount) {
+        return ALPHABET_SIZE * Character.BYTES + 2 * slotCount * Integer.BYTES;
+    }
+
+    /**
+     * Calls {@code consumer} with the end offset and entry of every key that {@code text} starts with at
+     * {@code start}, shortest first.
+     */
+    void commonPrefixSearch(CharSequence text, int start, PrefixConsumer consumer) {
+        int state = ROOT;
+        for (int pos = start; pos < text.length(); pos++) {
+            state = transition(state, text.charAt(pos));
+            if (state == NOT_FOUND) {
+                return;
+            }
+
+            int entry = entryAt(state);
+            if (entry != NOT_FOUND) {
+                consumer.accept(pos + 1, entry);
+            }
+        }
+    }
+
+    /**
+     * Entry of the key {@code text[start, end)}, or {@link #NOT_FOUND}.
+     */
+    int exactMatch(CharSequence text, int start, int end) {
+        int state = ROOT;
+        for (int pos = start; pos < end; pos++) {
+            state = transition(state, text.charAt(pos));
+            if (state == NOT_FOUND) {
+                return NOT_FOUND;
+            }
+        }
+        return entryAt(state);
+    }
+
+    private int transition(int state, char c) {
+        int code = codes.get(c);
+        if (code == 0) {
+            return NOT_FOUND;
+        }
+
+        int next = base.get(state) + code;
+        if (next <= 0 || next >= slotCount || check.get(next) != state) {
+            return NOT_FOUND;
+        }
+        return next;
+    }
+
+    // Entry of the key ending at state, if one does
+    private int entryAt(int state) {
+        int terminal = base.get(state);
+        if (terminal > 0 && terminal < slotCount && check.get(terminal) == state) {
+            int value = base.get(terminal);
+            if (value < 0) {
+                return -value - 1;
+            }
+        }
+        return NOT_FOUND;
+    }
+}
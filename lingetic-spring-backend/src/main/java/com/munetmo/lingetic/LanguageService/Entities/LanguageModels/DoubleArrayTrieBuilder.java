@@ -0,0 +1,152 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Builds the arrays of a {@link DoubleArrayTrie} offline, for the lexicon compilers. The entry of each key is its
+ * index in the sorted key list.
+ */
+final class DoubleArrayTrieBuilder {
+    private int[] base = new int[1024];
+    private int[] check = new int[1024];
+    private final int[] codes;
+    private final BitSet usedBases = new BitSet();
+    private int slotCount = DoubleArrayTrie.ROOT + 1;
+    // No slot before this one is free, so the search for a base can start from it
+    private int firstFreeSlot = DoubleArrayTrie.ROOT + 1;
+
+    /**
+     * @param keys distinct, non-empty keys in {@link String#compareTo} order
+     */
+    DoubleArrayTrieBuilder(List<String> keys) {
+        for (int i = 1; i < keys.size(); i++) {
+            if (keys.get(i - 1).compareTo(keys.get(i)) >= 0) {
+                throw new IllegalArgumentException("Trie keys must be sorted and distinct");
+            }
+        }
+
+        this.codes = assignCodes(keys);
+        var encodedKeys = new ArrayList<int[]>(keys.size());
+        for (var key : keys) {
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("Trie keys cannot be empty");
+            }
+
+            var encoded = new int[key.length()];
+            for (int i = 0; i < key.length(); i++) {
+                encoded[i] = codes[key.charAt(i)];
+            }
+            encodedKeys.add(encoded);
+        }
+
+        // Codes preserve char order, so keys sharing a prefix are adjacent
+        if (!encodedKeys.isEmpty()) {
+            insert(DoubleArrayTrie.ROOT, encodedKeys, 0, encodedKeys.size(), 0);
+        }
+    }
+
+    int slotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Writes the trie in the layout read by {@link DoubleArrayTrie#DoubleArrayTrie}.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        for (var code : codes) {
+            out.writeChar(code);
+        }
+        for (int i = 0; i < slotCount; i++) {
+            out.writeInt(base[i]);
+        }
+        for (int i = 0; i < slotCount; i++) {
+            out.writeInt(check[i]);
+        }
+    }
+
+    private static int[] assignCodes(List<String> keys) {
+        var used = new BitSet(DoubleArrayTrie.ALPHABET_SIZE);
+        for (var key : keys) {
+            key.chars().forEach(used::set);
+        }
+
+        var codes = new int[DoubleArrayTrie.ALPHABET_SIZE];
+        int next = 1;
+        for (int c = used.nextSetBit(0); c >= 0; c = used.nextSetBit(c + 1)) {
+            codes[c] = next++;
+        }
+        return codes;
+    }
+
+    // Places the children of state for keys[from, to), which all share their first depth codes
+    private void insert(int state, List<int[]> keys, int from, int to, int depth) {
+        var childCodes = new ArrayList<Integer>();
+        var childStarts = new ArrayList<Integer>();
+        for (int i = from; i < to; i++) {
+            var key = keys.get(i);
+            // The end-of-key code 0 sorts first, matching the order of the keys
+            int code = depth < key.length ? key[depth] : 0;
+            if (childCodes.isEmpty() || childCodes.get(childCodes.size() - 1) != code) {
+                childCodes.add(code);
+                childStarts.add(i);
+            }
+        }
+        childStarts.add(to);
+
+        int stateBase = findBase(childCodes);
+        base[state] = stateBase;
+        usedBases.set(stateBase);
+        for (var code : childCodes) {
+            check[stateBase + code] = state;
+        }
+        while (check[firstFreeSlot] != 0) {
+            firstFreeSlot++;
+            ensureCapacity(firstFreeSlot + 1);
+        }
+
+        for (int i = 0; i < childCodes.size(); i++) {
+            int child = stateBase + childCodes.get(i);
+            if (childCodes.get(i) == 0) {
+                base[child] = -(childStarts.get(i) + 1);
+            } else {
+                insert(child, keys, childStarts.get(i), childStarts.get(i + 1), depth + 1);
+            }
+        }
+    }
+
+    private int findBase(List<Integer> childCodes) {
+        for (int candidate = Math.max(1, firstFreeSlot - childCodes.get(0)); ; candidate++) {
+            if (usedBases.get(candidate)) {
+                continue;
+            }
+
+            var fits = true;
+            for (var code : childCodes) {
+                int slot = candidate + code;
+                ensureCapacity(slot + 1);
+                if (slot == DoubleArrayTrie.ROOT || check[slot] != 0) {
+                    fits = false;
+                    break;
+                }
+            }
+
+            if (fits) {
+                slotCount = Math.max(slotCount, candidate + childCodes.get(childCodes.size() - 1) + 1);
+                return candidate;
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (base.length < capacity) {
+            int newLength = Math.max(capacity, base.length * 2);
+            base = Arrays.copyOf(base, newLength);
+            check = Arrays.copyOf(check, newLength);
+        }
+    }
+}
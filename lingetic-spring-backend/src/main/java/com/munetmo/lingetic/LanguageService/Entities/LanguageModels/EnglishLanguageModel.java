@@ -1,19 +1,27 @@
 package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
 
+import com.munetmo.lingetic.LanguageService.Entities.FoldingMode;
 import com.munetmo.lingetic.LanguageService.Entities.Language;
 import com.munetmo.lingetic.LanguageService.Entities.Token;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSink;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSpans;
 import com.munetmo.lingetic.LanguageService.Entities.TokenType;
 import com.munetmo.lingetic.LanguageService.Entities.LanguageModels.LatinScriptLanguageModelHelper;
 import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public final class EnglishLanguageModel implements LanguageModel {
     private final LatinScriptLanguageModelHelper helper;
 
     public EnglishLanguageModel() {
-        this.helper = new LatinScriptLanguageModelHelper(Locale.ENGLISH);
+        this.helper = new LatinScriptLanguageModelHelper(Locale.ENGLISH, FoldingMode.OrthographicVariants, Map.of(
+                'æ', "ae",
+                'œ', "oe"
+        ), LemmaLexicon.forLanguage(Language.English));
     }
 
     @Override
@@ -26,11 +34,36 @@ public final class EnglishLanguageModel implements LanguageModel {
         return helper.areEquivalent(s1, s2);
     }
 
+    @Override
+    public String canonicalize(String answer) {
+        return helper.canonicalize(answer);
+    }
+
+    @Override
+    public boolean isNearMiss(String answer, String canonicalAnswer) {
+        return helper.isNearMiss(answer, canonicalAnswer);
+    }
+
+    @Override
+    public boolean matchesLemmas(String answer, String canonicalAnswer) {
+        return helper.matchesLemmas(answer, canonicalAnswer);
+    }
+
     @Override
     public List<Token> tokenize(String input) {
         return helper.tokenize(input);
     }
 
+    @Override
+    public TokenSpans tokenizeSpans(CharSequence input) {
+        return helper.tokenizeSpans(input);
+    }
+
+    @Override
+    public void tokenize(Readable input, TokenSink sink) throws IOException {
+        helper.tokenize(input, sink);
+    }
+
     @Override
     public String combineTokens(List<Token> tokens) {
         return helper.combineTokens(tokens);
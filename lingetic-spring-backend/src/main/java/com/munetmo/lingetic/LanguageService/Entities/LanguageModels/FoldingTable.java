@@ -0,0 +1,186 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import com.munetmo.lingetic.LanguageService.Entities.FoldingMode;
+
+import java.nio.IntBuffer;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Precomputed lower-casing and folding of every BMP character for one locale and {@link FoldingMode}.
+ * Each character maps to an int entry holding its folded form (itself, another character, nothing, or a short
+ * expansion such as ß -> ss) and whether it is significant, i.e. not trimmed from the edges of a word.
+ * Entries are stored in 256-character blocks and identical blocks are shared, so a lookup is two array reads.
+ */
+final class FoldingTable {
+    private static final String SPECIFIC_CHARACTERS = "àâäæçéèêëîïôœùûüÿçğıöşüåäöāīūēō";
+
+    // Folds shared by every lenient mode
+    private static final Map<Character, String> TYPOGRAPHIC_VARIANTS = Map.of(
+            '‘', "'",
+            '’', "'",
+            'ʼ', "'"
+    );
+
+    // Letters whose plain form can't be found by stripping combining marks from their decomposition
+    private static final Map<Character, String> UNACCENTED_LETTERS = Map.of(
+            'ß', "ss",
+            'æ', "ae",
+            'œ', "oe",
+            'ø', "o",
+            'ı', "i",
+            'ł', "l",
+            'đ', "d",
+            'ħ', "h"
+    );
+
+    private static final int BLOCK_BITS = 8;
+    private static final int BLOCK_MASK = (1 << BLOCK_BITS) - 1;
+    private static final int MAX_FOLDED_LENGTH = 3;
+
+    private static final int VALUE_MASK = 0xFFFF;
+    private static final int LENGTH_SHIFT = 16;
+    private static final int IDENTITY = 1 << 18;
+    private static final int SIGNIFICANT = 1 << 19;
+
+    private final int[][] blocks;
+    private final char[] expansions;
+
+    private FoldingTable(int[][] blocks, char[] expansions) {
+        this.blocks = blocks;
+        this.expansions = expansions;
+    }
+
+    static FoldingTable build(Locale locale, FoldingMode mode, Map<Character, String> orthographicVariants) {
+        var language = locale.getLanguage();
+        var turkic = language.equals("tr") || language.equals("az");
+
+        var expansions = new StringBuilder();
+        var expansionOffsets = new HashMap<String, Integer>();
+        var distinctBlocks = new HashMap<IntBuffer, int[]>();
+        var blocks = new int[(Character.MAX_VALUE + 1) >>> BLOCK_BITS][];
+
+        for (int blockIndex = 0; blockIndex < blocks.length; blockIndex++) {
+            var block = new int[BLOCK_MASK + 1];
+            for (int i = 0; i < block.length; i++) {
+                var c = (char) ((blockIndex << BLOCK_BITS) | i);
+                block[i] = entryFor(c, turkic, mode, orthographicVariants, expansions, expansionOffsets);
+            }
+            blocks[blockIndex] = distinctBlocks.computeIfAbsent(IntBuffer.wrap(block), unused -> block);
+        }
+
+        return new FoldingTable(blocks, expansions.toString().toCharArray());
+    }
+
+    int entry(char c) {
+        return blocks[c >>> BLOCK_BITS][c & BLOCK_MASK];
+    }
+
+    static boolean isSignificant(int entry) {
+        return (entry & SIGNIFICANT) != 0;
+    }
+
+    static boolean isIdentity(int entry) {
+        return (entry & IDENTITY) != 0;
+    }
+
+    // Number of characters the entry folds to; 1 for identity entries
+    static int length(int entry) {
+        return (entry >>> LENGTH_SHIFT) & MAX_FOLDED_LENGTH;
+    }
+
+    // The folded character of a non-identity entry of length 1
+    static char folded(int entry) {
+        return (char) (entry & VALUE_MASK);
+    }
+
+    // Index into the expansion characters of an entry longer than 1
+    static int expansionStart(int entry) {
+        return entry & VALUE_MASK;
+    }
+
+    char expansionChar(int index) {
+        return expansions[index];
+    }
+
+    private static int entryFor(
+            char c,
+            boolean turkic,
+            FoldingMode mode,
+            Map<Character, String> orthographicVariants,
+            StringBuilder expansions,
+            Map<String, Integer> expansionOffsets) {
+        if (Character.isSurrogate(c)) {
+            return IDENTITY | (1 << LENGTH_SHIFT);
+        }
+
+        var lower = turkic && c == 'I' ? 'ı' : Character.toLowerCase(c);
+        var folded = switch (mode) {
+            case Strict -> String.valueOf(lower);
+            case AccentInsensitive -> stripAccents(lower);
+            case OrthographicVariants -> orthographicVariants.getOrDefault(
+                    lower, TYPOGRAPHIC_VARIANTS.getOrDefault(lower, String.valueOf(lower)));
+        };
+
+        if (folded.length() > MAX_FOLDED_LENGTH) {
+            throw new IllegalArgumentException("Folded form of %s is longer than %d characters".formatted(c, MAX_FOLDED_LENGTH));
+        }
+
+        var significant = mode == FoldingMode.Strict
+                ? isSpecificOrAsciiAlphanumeric(lower)
+                : Character.isLetterOrDigit(lower) && !folded.isEmpty();
+
+        var entry = (folded.length() << LENGTH_SHIFT) | (significant ? SIGNIFICANT : 0);
+        if (folded.length() == 1 && folded.charAt(0) == c) {
+            return entry | IDENTITY;
+        }
+        if (folded.length() == 1) {
+            return entry | folded.charAt(0);
+        }
+        if (folded.isEmpty()) {
+            return entry;
+        }
+
+        var offset = expansionOffsets.computeIfAbsent(folded, unused -> {
+            var start = expansions.length();
+            expansions.append(folded);
+            return start;
+        });
+        return entry | offset;
+    }
+
+    private static String stripAccents(char lower) {
+        var unaccented = UNACCENTED_LETTERS.get(lower);
+        if (unaccented != null) {
+            return unaccented;
+        }
+
+        var typographic = TYPOGRAPHIC_VARIANTS.get(lower);
+        if (typographic != null) {
+            return typographic;
+        }
+
+        if (Character.getType(lower) == Character.NON_SPACING_MARK) {
+            return "";
+        }
+
+        var decomposed = Normalizer.normalize(String.valueOf(lower), Normalizer.Form.NFD);
+        var base = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            var d = decomposed.charAt(i);
+            if (Character.getType(d) != Character.NON_SPACING_MARK) {
+                base.append(d);
+            }
+        }
+
+        // Only letters that decompose into one base character and marks have an accent to drop; anything else,
+        // such as a Hangul syllable, stays as it is.
+        return base.length() == 1 ? base.toString() : String.valueOf(lower);
+    }
+
+    private static boolean isSpecificOrAsciiAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || SPECIFIC_CHARACTERS.indexOf(c) >= 0;
+    }
+}
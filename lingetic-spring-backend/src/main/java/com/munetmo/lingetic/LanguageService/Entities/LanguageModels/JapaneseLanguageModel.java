@@ -0,0 +1,142 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageService.Entities.Token;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSink;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSpans;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.text.Normalizer;
+import java.util.List;
+
+/**
+ * Japanese written in kanji and kana, which doesn't separate words with spaces. Sentences are segmented with a
+ * bundled lexicon (see {@link JapaneseSegmenter}); answers are compared after NFKC normalization, which unifies
+ * full- and half-width forms, ignoring whitespace and punctuation.
+ */
+public final class JapaneseLanguageModel implements LanguageModel {
+    private static final int STREAMING_CHUNK_SIZE = 8192;
+    private static final int MAX_STREAMED_SENTENCE_LENGTH = 64 * 1024;
+    private static final String SENTENCE_TERMINATORS = "。！？!?\n";
+
+    private static final JapaneseSegmenter segmenter = new JapaneseSegmenter(JapaneseLexicon.load());
+
+    @Override
+    public Language getLanguage() {
+        return Language.Japanese;
+    }
+
+    @Override
+    public boolean areEquivalent(String s1, String s2) {
+        return canonicalize(s1).equals(canonicalize(s2));
+    }
+
+    @Override
+    public String canonicalize(String answer) {
+        var normalized = Normalizer.normalize(answer, Normalizer.Form.NFKC);
+        var result = new StringBuilder(normalized.length());
+        normalized.codePoints()
+                .filter(Character::isLetterOrDigit)
+                .map(Character::toLowerCase)
+                .forEach(result::appendCodePoint);
+        return result.toString();
+    }
+
+    @Override
+    public boolean isNearMiss(String answer, String canonicalAnswer) {
+        int targetLength = canonicalAnswer.codePointCount(0, canonicalAnswer.length());
+        int maxTypos = BoundedEditDistance.maxTyposFor(targetLength);
+        if (maxTypos == 0) {
+            return false;
+        }
+
+        var canonical = canonicalize(answer);
+        int sourceLength = canonical.codePointCount(0, canonical.length());
+
+        var distance = BoundedEditDistance.forCurrentThread();
+        copyCodePoints(canonicalAnswer, distance.targetBuffer(targetLength));
+        copyCodePoints(canonical, distance.sourceBuffer(sourceLength));
+
+        int edits = distance.compute(sourceLength, targetLength, maxTypos);
+        return edits > 0 && edits <= maxTypos;
+    }
+
+    // Inflections are split off as words of their own by the segmenter, but there is no lemma lexicon yet
+    @Override
+    public boolean matchesLemmas(String answer, String canonicalAnswer) {
+        return false;
+    }
+
+    private static void copyCodePoints(String s, int[] destination) {
+        for (int pos = 0, i = 0; pos < s.length(); i++) {
+            destination[i] = s.codePointAt(pos);
+            pos += Character.charCount(destination[i]);
+        }
+    }
+
+    @Override
+    public List<Token> tokenize(String sentence) {
+        return tokenizeSpans(sentence).toTokens();
+    }
+
+    @Override
+    public TokenSpans tokenizeSpans(CharSequence sentence) {
+        return segmenter.segment(sentence);
+    }
+
+    /**
+     * Segments the stream one batch of whole sentences at a time, since a word can't be cut at an arbitrary
+     * chunk boundary. A sentence longer than {@value #MAX_STREAMED_SENTENCE_LENGTH} characters is rejected.
+     */
+    @Override
+    public void tokenize(Readable input, TokenSink sink) throws IOException {
+        var chunk = CharBuffer.allocate(STREAMING_CHUNK_SIZE);
+        var pending = new StringBuilder();
+        long pendingStart = 0;
+
+        while (input.read(chunk) != -1) {
+            chunk.flip();
+            pending.append(chunk);
+            chunk.clear();
+
+            int boundary = lastSentenceEnd(pending);
+            if (boundary > 0) {
+                emitTokens(pending.substring(0, boundary), pendingStart, sink);
+                pending.delete(0, boundary);
+                pendingStart += boundary;
+            } else if (pending.length() > MAX_STREAMED_SENTENCE_LENGTH) {
+                throw new IllegalArgumentException(
+                        "Sentences longer than %d characters cannot be tokenized".formatted(MAX_STREAMED_SENTENCE_LENGTH));
+            }
+        }
+
+        emitTokens(pending.toString(), pendingStart, sink);
+    }
+
+    private static int lastSentenceEnd(CharSequence text) {
+        for (int i = text.length() - 1; i >= 0; i--) {
+            if (SENTENCE_TERMINATORS.indexOf(text.charAt(i)) >= 0) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private void emitTokens(String text, long offset, TokenSink sink) {
+        var spans = tokenizeSpans(text);
+        for (int i = 0; i < spans.size(); i++) {
+            sink.accept(spans.type(i), spans.valueSpan(i), offset + spans.start(i));
+        }
+    }
+
+    // Japanese doesn't put spaces between words, so tokens are joined as they are
+    @Override
+    public String combineTokens(List<Token> tokens) {
+        var result = new StringBuilder();
+        for (var token : tokens) {
+            result.append(token.value());
+        }
+        return result.toString();
+    }
+}
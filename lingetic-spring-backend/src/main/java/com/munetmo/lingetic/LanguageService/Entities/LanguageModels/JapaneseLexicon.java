@@ -0,0 +1,69 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Japanese words with their segmentation cost and category, read from a lexicon compiled by
+ * {@code JapaneseLexiconCompiler}, a build tool in the lexiconCompiler source set. The file is memory-mapped, so
+ * loading it is cheap and it stays off the heap.
+ * <p>
+ * File layout, big-endian: magic, format version, trie slot count and entry count as ints; the
+ * {@link DoubleArrayTrie}; then a short cost and a byte {@link JapaneseWordCategory} ordinal per entry.
+ */
+final class JapaneseLexicon {
+    static final String RESOURCE = "lexicons/japanese.dat";
+    static final int MAGIC = 0x4C4A4C58;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private final DoubleArrayTrie trie;
+    private final ByteBuffer costs;
+    private final ByteBuffer categories;
+    private final int entryCount;
+
+    JapaneseLexicon(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a compiled Japanese lexicon");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported Japanese lexicon version " + buffer.getInt(4));
+        }
+
+        int slotCount = buffer.getInt(8);
+        this.entryCount = buffer.getInt(12);
+
+        int costsOffset = HEADER_SIZE + DoubleArrayTrie.sizeInBytes(slotCount);
+        int categoriesOffset = costsOffset + entryCount * Short.BYTES;
+        if (buffer.limit() < categoriesOffset + entryCount) {
+            throw new IllegalArgumentException("Japanese lexicon is truncated");
+        }
+
+        this.trie = new DoubleArrayTrie(buffer.duplicate().position(HEADER_SIZE), slotCount);
+        this.costs = buffer.slice(costsOffset, entryCount * Short.BYTES);
+        this.categories = buffer.slice(categoriesOffset, entryCount);
+    }
+
+    static JapaneseLexicon load() {
+        var buffer = MappedResources.mapIfPresent(RESOURCE);
+        if (buffer == null) {
+            throw new IllegalStateException("Japanese lexicon resource " + RESOURCE + " not found");
+        }
+        return new JapaneseLexicon(buffer);
+    }
+
+    void commonPrefixSearch(CharSequence text, int start, DoubleArrayTrie.PrefixConsumer consumer) {
+        trie.commonPrefixSearch(text, start, consumer);
+    }
+
+    int cost(int entry) {
+        return costs.getShort(entry * Short.BYTES);
+    }
+
+    JapaneseWordCategory category(int entry) {
+        return JapaneseWordCategory.fromOrdinal(categories.get(entry));
+    }
+
+    int size() {
+        return entryCount;
+    }
+}
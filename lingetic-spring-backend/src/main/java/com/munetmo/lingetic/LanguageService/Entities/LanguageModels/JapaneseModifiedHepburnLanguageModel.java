@@ -1,13 +1,30 @@
 package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
 
+import com.munetmo.lingetic.LanguageService.Entities.FoldingMode;
 import com.munetmo.lingetic.LanguageService.Entities.Language;
 import com.munetmo.lingetic.LanguageService.Entities.Token;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSink;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSpans;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
+/**
+ * Japanese written in modified Hepburn romaji. Answers may also be typed in kana or another romanization, so both
+ * sides are transliterated (see {@link KanaRomajiTransliterator}) before they are compared.
+ * <p>
+ * Kana is usually typed without spaces, so answers are compared ignoring whitespace and punctuation, as in
+ * {@link JapaneseLanguageModel}. Without spaces, the particles は and へ, read wa and e, can't be told apart from the
+ * syllables ha and he, so both readings are accepted: after the first letter, wa is compared as ha and he as e. This
+ * makes a few unrelated words, like sono hebi and sono ebi, compare equal, which only makes grading slightly more
+ * lenient.
+ */
 public final class JapaneseModifiedHepburnLanguageModel implements LanguageModel {
-    private static final LatinScriptLanguageModelHelper helper = new LatinScriptLanguageModelHelper(Locale.JAPAN);
+    private static final LatinScriptLanguageModelHelper helper = new LatinScriptLanguageModelHelper(Locale.JAPAN, FoldingMode.OrthographicVariants, Map.of());
+    // Answers may be typed in kana or another romanization, so both sides are transliterated before comparing
+    private static final KanaRomajiTransliterator transliterator = KanaRomajiTransliterator.build();
 
     @Override
     public Language getLanguage() {
@@ -16,7 +33,41 @@ public final class JapaneseModifiedHepburnLanguageModel implements LanguageModel
 
     @Override
     public boolean areEquivalent(String s1, String s2) {
-        return helper.areEquivalent(s1, s2);
+        return canonicalize(s1).equals(canonicalize(s2));
+    }
+
+    @Override
+    public String canonicalize(String answer) {
+        var normalized = helper.canonicalize(transliterator.transliterate(answer));
+        var result = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                continue;
+            }
+
+            char next = i + 1 < normalized.length() ? normalized.charAt(i + 1) : 0;
+            if (!result.isEmpty() && c == 'w' && (next == 'a' || next == 'ā')) {
+                result.append('h');
+            } else if (!result.isEmpty() && c == 'h' && (next == 'e' || next == 'ē')
+                    && !isDigraphStart(result.charAt(result.length() - 1))) {
+                // he is compared as e, except in she and che
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    @Override
+    public boolean isNearMiss(String answer, String canonicalAnswer) {
+        return helper.isNearMiss(canonicalize(answer), canonicalAnswer);
+    }
+
+    // There is no lemma lexicon for romanized Japanese
+    @Override
+    public boolean matchesLemmas(String answer, String canonicalAnswer) {
+        return false;
     }
 
     @Override
@@ -24,8 +75,22 @@ public final class JapaneseModifiedHepburnLanguageModel implements LanguageModel
         return helper.tokenize(input);
     }
 
+    @Override
+    public TokenSpans tokenizeSpans(CharSequence input) {
+        return helper.tokenizeSpans(input);
+    }
+
+    @Override
+    public void tokenize(Readable input, TokenSink sink) throws IOException {
+        helper.tokenize(input, sink);
+    }
+
     @Override
     public String combineTokens(List<Token> tokens) {
         return helper.combineTokens(tokens);
     }
+
+    private static boolean isDigraphStart(char c) {
+        return c == 's' || c == 'c';
+    }
 }
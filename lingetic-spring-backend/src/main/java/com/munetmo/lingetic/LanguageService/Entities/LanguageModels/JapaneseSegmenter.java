@@ -0,0 +1,259 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import com.munetmo.lingetic.LanguageService.Entities.TokenSpans;
+import com.munetmo.lingetic.LanguageService.Entities.TokenType;
+
+import java.util.Arrays;
+
+/**
+ * Splits Japanese text into words by finding the cheapest path through the lattice of every lexicon word and
+ * unknown-word candidate starting at each position (Viterbi). A path costs the sum of its word costs plus the
+ * {@link JapaneseWordCategory#connectionCost} between neighbours, so the best path is tracked separately for each
+ * category of its last word.
+ * <p>
+ * Characters the lexicon doesn't know are grouped by script: runs of katakana, Latin letters or digits always form
+ * a candidate word, while unknown kanji and kana form one only where no lexicon word starts. Whitespace is skipped
+ * and every punctuation character is a token of its own.
+ */
+final class JapaneseSegmenter {
+    private static final int NO_EDGE = -1;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private static final int UNKNOWN_KATAKANA_COST = 4000;
+    private static final int UNKNOWN_LATIN_COST = 2500;
+    private static final int NUMBER_COST = 2000;
+    private static final int UNKNOWN_KANJI_COST = 5000;
+    private static final int UNKNOWN_KANJI_COST_PER_CHAR = 1000;
+    private static final int MAX_UNKNOWN_KANJI_LENGTH = 4;
+    private static final int UNKNOWN_CHARACTER_COST = 8000;
+
+    private enum Script { Kanji, Hiragana, Katakana, Latin, Digit, Punctuation, Whitespace, Other }
+
+    private final JapaneseLexicon lexicon;
+
+    JapaneseSegmenter(JapaneseLexicon lexicon) {
+        this.lexicon = lexicon;
+    }
+
+    TokenSpans segment(CharSequence text) {
+        return new Lattice(text).solve();
+    }
+
+    private static Script scriptOf(int cp) {
+        if (Character.isWhitespace(cp)) {
+            return Script.Whitespace;
+        }
+        if (Character.isDigit(cp)) {
+            return Script.Digit;
+        }
+        // The prolonged sound mark is in the common script but only ever follows kana
+        if (cp == 'ー' || cp == 'ｰ') {
+            return Script.Katakana;
+        }
+
+        switch (Character.getType(cp)) {
+            case Character.CONNECTOR_PUNCTUATION, Character.DASH_PUNCTUATION, Character.START_PUNCTUATION,
+                 Character.END_PUNCTUATION, Character.INITIAL_QUOTE_PUNCTUATION, Character.FINAL_QUOTE_PUNCTUATION,
+                 Character.OTHER_PUNCTUATION -> {
+                return Script.Punctuation;
+            }
+            default -> {
+            }
+        }
+
+        return switch (Character.UnicodeScript.of(cp)) {
+            case HAN -> Script.Kanji;
+            case HIRAGANA -> Script.Hiragana;
+            case KATAKANA -> Script.Katakana;
+            case LATIN -> Script.Latin;
+            default -> Script.Other;
+        };
+    }
+
+    private final class Lattice {
+        private final CharSequence text;
+        private final int length;
+        private final int states;
+
+        // Indexed by position * states + category of the last word; the extra last state is the sentence start
+        private final int[] cost;
+        private final int[] previousPosition;
+        private final int[] previousState;
+        private final byte[] tokenType;
+
+        private int position;
+        private boolean lexiconWordStartsHere;
+
+        Lattice(CharSequence text) {
+            this.text = text;
+            this.length = text.length();
+            this.states = JapaneseWordCategory.count() + 1;
+
+            int size = (length + 1) * states;
+            this.cost = new int[size];
+            this.previousPosition = new int[size];
+            this.previousState = new int[size];
+            this.tokenType = new byte[size];
+            Arrays.fill(cost, UNREACHED);
+            cost[startState()] = 0;
+        }
+
+        TokenSpans solve() {
+            for (position = 0; position < length; position++) {
+                if (!isReached(position)) {
+                    continue;
+                }
+
+                int cp = Character.codePointAt(text, position);
+                var script = scriptOf(cp);
+
+                if (script == Script.Whitespace) {
+                    int end = position + Character.charCount(cp);
+                    for (int state = 0; state < states; state++) {
+                        relax(position, state, end, state, 0, NO_EDGE);
+                    }
+                    continue;
+                }
+
+                // Punctuation separates clauses, so what follows it is connected as if it started the sentence
+                if (script == Script.Punctuation) {
+                    int end = position + Character.charCount(cp);
+                    for (int state = 0; state < states; state++) {
+                        relax(position, state, end, startState(), 0, TokenType.Punctuation.ordinal());
+                    }
+                    continue;
+                }
+
+                lexiconWordStartsHere = false;
+                lexicon.commonPrefixSearch(text, position, (end, entry) -> {
+                    lexiconWordStartsHere = true;
+                    addCandidate(end, lexicon.category(entry), lexicon.cost(entry), TokenType.Word);
+                });
+
+                addUnknownCandidates(cp, script);
+            }
+
+            return backtrack();
+        }
+
+        private void addUnknownCandidates(int cp, Script script) {
+            switch (script) {
+                case Katakana -> addCandidate(runEnd(script), JapaneseWordCategory.Noun, UNKNOWN_KATAKANA_COST, TokenType.Word);
+                case Latin -> addCandidate(runEnd(script), JapaneseWordCategory.Noun, UNKNOWN_LATIN_COST, TokenType.Word);
+                case Digit -> addCandidate(runEnd(script), JapaneseWordCategory.Noun, NUMBER_COST, TokenType.Number);
+                case Kanji -> {
+                    if (!lexiconWordStartsHere) {
+                        int end = Math.min(runEnd(script), position + MAX_UNKNOWN_KANJI_LENGTH);
+                        for (int wordEnd = position + 1; wordEnd <= end; wordEnd++) {
+                            if (wordEnd < length && Character.isLowSurrogate(text.charAt(wordEnd))) {
+                                continue;
+                            }
+                            int wordCost = UNKNOWN_KANJI_COST + UNKNOWN_KANJI_COST_PER_CHAR * (wordEnd - position);
+                            addCandidate(wordEnd, JapaneseWordCategory.Noun, wordCost, TokenType.Word);
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+
+            // Guarantees that every position has a way forward
+            if (!lexiconWordStartsHere) {
+                addCandidate(position + Character.charCount(cp), JapaneseWordCategory.Noun, UNKNOWN_CHARACTER_COST, TokenType.Word);
+            }
+        }
+
+        private int runEnd(Script script) {
+            int end = position;
+            while (end < length) {
+                int cp = Character.codePointAt(text, end);
+                if (scriptOf(cp) != script) {
+                    break;
+                }
+                end += Character.charCount(cp);
+            }
+            return end;
+        }
+
+        private void addCandidate(int end, JapaneseWordCategory category, int wordCost, TokenType type) {
+            for (int state = 0; state < states; state++) {
+                var previous = state == startState() ? null : JapaneseWordCategory.fromOrdinal(state);
+                int edgeCost = wordCost + JapaneseWordCategory.connectionCost(previous, category);
+                relax(position, state, end, category.ordinal(), edgeCost, type.ordinal());
+            }
+        }
+
+        private void relax(int from, int fromState, int to, int toState, int edgeCost, int type) {
+            int fromIndex = from * states + fromState;
+            if (cost[fromIndex] == UNREACHED) {
+                return;
+            }
+
+            int toIndex = to * states + toState;
+            int candidate = cost[fromIndex] + edgeCost;
+            if (candidate < cost[toIndex]) {
+                cost[toIndex] = candidate;
+                previousPosition[toIndex] = from;
+                previousState[toIndex] = fromState;
+                tokenType[toIndex] = (byte) type;
+            }
+        }
+
+        private boolean isReached(int pos) {
+            for (int state = 0; state < states; state++) {
+                if (cost[pos * states + state] != UNREACHED) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int startState() {
+            return JapaneseWordCategory.count();
+        }
+
+        private TokenSpans backtrack() {
+            int bestState = 0;
+            for (int state = 1; state < states; state++) {
+                if (cost[length * states + state] < cost[length * states + bestState]) {
+                    bestState = state;
+                }
+            }
+
+            // Walk back once to count the tokens, then again to fill them in order
+            int tokenCount = 0;
+            for (int pos = length, state = bestState; pos > 0; ) {
+                int index = pos * states + state;
+                if (tokenType[index] != NO_EDGE) {
+                    tokenCount++;
+                }
+                pos = previousPosition[index];
+                state = previousState[index];
+            }
+
+            var types = new byte[tokenCount];
+            var starts = new int[tokenCount];
+            var ends = new int[tokenCount];
+            int next = tokenCount;
+            for (int pos = length, state = bestState; pos > 0; ) {
+                int index = pos * states + state;
+                int from = previousPosition[index];
+                if (tokenType[index] != NO_EDGE) {
+                    next--;
+                    types[next] = tokenType[index];
+                    starts[next] = from;
+                    ends[next] = pos;
+                }
+                pos = from;
+                state = previousState[index];
+            }
+
+            var spans = new TokenSpans(text, tokenCount);
+            var tokenTypes = TokenType.values();
+            for (int i = 0; i < tokenCount; i++) {
+                spans.add(tokenTypes[types[i]], starts[i], ends[i]);
+            }
+            return spans;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Coarse part of speech of a Japanese lexicon entry. The segmenter uses it to penalize unlikely neighbours, such
+ * as a sentence starting with a particle. The ordinal is stored in the compiled lexicon, so only append to this.
+ */
+enum JapaneseWordCategory {
+    Noun,
+    Verb,
+    Adjective,
+    Adverb,
+    Adnominal,
+    Particle,
+    Auxiliary,
+    Conjunction,
+    Interjection,
+    Prefix,
+    Suffix;
+
+    private static final JapaneseWordCategory[] values = values();
+
+    static JapaneseWordCategory fromOrdinal(int ordinal) {
+        return values[ordinal];
+    }
+
+    static int count() {
+        return values.length;
+    }
+
+    /**
+     * Extra cost of a word of category {@code next} directly after one of category {@code previous}, where a
+     * {@code null} previous category is the start of the sentence.
+     */
+    static int connectionCost(@Nullable JapaneseWordCategory previous, JapaneseWordCategory next) {
+        if (previous == null) {
+            return switch (next) {
+                case Particle, Auxiliary, Suffix -> 3000;
+                default -> 0;
+            };
+        }
+
+        if (next == Suffix && previous != Noun) {
+            return 3000;
+        }
+
+        return switch (previous) {
+            case Prefix -> next == Noun ? 0 : 3000;
+            case Adnominal -> next == Noun || next == Prefix || next == Adjective ? 0 : 2000;
+            case Particle -> switch (next) {
+                case Auxiliary -> 2500;
+                case Particle -> 800;
+                default -> 0;
+            };
+            case Verb -> switch (next) {
+                case Noun, Verb -> 1000;
+                default -> 0;
+            };
+            case Noun -> next == Noun ? 500 : 0;
+            case Auxiliary -> next == Noun ? 500 : 0;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,363 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rewrites Japanese typed in hiragana, katakana, Kunrei-shiki or wapuro romaji into one romanization, so that
+ * answers written any of these ways compare equal.
+ * <p>
+ * The output is modified Hepburn with every long vowel written with a macron: とうきょう, toukyou, tookyoo,
+ * tôkyô and tōkyō all become tōkyō. Since stored answers go through the same rewrite, merging a few spellings that
+ * Hepburn keeps apart (omou and omō, kin'en and kinen) only makes grading slightly more lenient.
+ * <p>
+ * Input is matched against a trie of kana and romaji units, longest match first, and the output is built in the
+ * same pass: っ doubles the next consonant, ー lengthens the previous vowel, and adjacent vowels that form a long
+ * vowel are merged as they are written.
+ */
+final class KanaRomajiTransliterator {
+    // Markers in unit outputs for characters whose romanization depends on their neighbours
+    private static final char GEMINATE_NEXT = '\uE000';
+    private static final char LENGTHEN_PREVIOUS = '\uE001';
+
+    // Covers ASCII, the Latin letters with circumflexes and macrons, and both kana blocks
+    private static final int ROOT_SIZE = 0x3100;
+    private static final int KATAKANA_OFFSET = 0x60;
+
+    private static final String SHORT_VOWELS = "aeiou";
+    private static final String MACRON_VOWELS = "āēīōū";
+    private static final String CIRCUMFLEX_VOWELS = "âêîôû";
+    // How each long vowel is written in the output; Hepburn writes a long i as ii
+    private static final String[] LONG_VOWELS = {"ā", "ē", "ii", "ō", "ū"};
+
+    private final @Nullable Node[] root = new Node[ROOT_SIZE];
+
+    private KanaRomajiTransliterator() {
+    }
+
+    static KanaRomajiTransliterator build() {
+        var transliterator = new KanaRomajiTransliterator();
+
+        for (var unit : ROMAJI_UNITS.entrySet()) {
+            transliterator.add(unit.getKey(), unit.getValue());
+            transliterator.addLongVowelVariants(unit.getKey(), unit.getValue());
+        }
+
+        for (var unit : KANA_UNITS.entrySet()) {
+            var romaji = transliterator.rewriteRomaji(unit.getValue());
+            transliterator.add(unit.getKey(), romaji);
+            transliterator.add(toKatakana(unit.getKey()), romaji);
+        }
+        transliterator.add("ー", String.valueOf(LENGTHEN_PREVIOUS));
+
+        return transliterator;
+    }
+
+    String transliterate(String input) {
+        var output = new Output(input.length() + 8);
+        int length = input.length();
+        int pos = 0;
+
+        while (pos < length) {
+            char first = toLowerCase(input.charAt(pos));
+            var node = first < ROOT_SIZE ? root[first] : null;
+
+            @Nullable String match = null;
+            int matchEnd = pos + 1;
+            int next = pos + 1;
+            while (node != null) {
+                if (node.output != null) {
+                    match = node.output;
+                    matchEnd = next;
+                }
+                if (next == length) {
+                    break;
+                }
+                node = node.child(toLowerCase(input.charAt(next++)));
+            }
+
+            if (match != null) {
+                output.append(match);
+            } else {
+                output.append(first);
+            }
+            pos = matchEnd;
+        }
+
+        return output.toString();
+    }
+
+    // Applies only the romaji units, which is how the romanization of each kana unit is made canonical
+    private String rewriteRomaji(String romaji) {
+        var result = new StringBuilder(romaji.length() + 2);
+        int pos = 0;
+        while (pos < romaji.length()) {
+            char first = romaji.charAt(pos);
+            var node = first < ROOT_SIZE ? root[first] : null;
+            @Nullable String match = null;
+            int matchEnd = pos + 1;
+            int next = pos + 1;
+            while (node != null) {
+                if (node.output != null) {
+                    match = node.output;
+                    matchEnd = next;
+                }
+                if (next == romaji.length()) {
+                    break;
+                }
+                node = node.child(romaji.charAt(next++));
+            }
+
+            if (match != null) {
+                result.append(match);
+            } else {
+                result.append(romaji.charAt(pos));
+            }
+            pos = matchEnd;
+        }
+        return result.toString();
+    }
+
+    // A unit ending in a vowel is also matched with that vowel long, so that tī is chii like tii
+    private void addLongVowelVariants(String unit, String output) {
+        int vowel = SHORT_VOWELS.indexOf(unit.charAt(unit.length() - 1));
+        if (vowel < 0) {
+            return;
+        }
+
+        var stem = unit.substring(0, unit.length() - 1);
+        var lengthened = output.substring(0, output.length() - 1) + LONG_VOWELS[vowel];
+        add(stem + MACRON_VOWELS.charAt(vowel), lengthened);
+        add(stem + CIRCUMFLEX_VOWELS.charAt(vowel), lengthened);
+    }
+
+    private void add(String unit, String output) {
+        char first = unit.charAt(0);
+        if (first >= ROOT_SIZE) {
+            throw new IllegalArgumentException("Unit %s is outside the transliteration table".formatted(unit));
+        }
+
+        var node = root[first];
+        if (node == null) {
+            node = new Node();
+            root[first] = node;
+        }
+        for (int i = 1; i < unit.length(); i++) {
+            node = node.childOrCreate(unit.charAt(i));
+        }
+        node.output = output;
+    }
+
+    private static char toLowerCase(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private static String toKatakana(String hiragana) {
+        var katakana = new StringBuilder(hiragana.length());
+        for (int i = 0; i < hiragana.length(); i++) {
+            katakana.append((char) (hiragana.charAt(i) + KATAKANA_OFFSET));
+        }
+        return katakana.toString();
+    }
+
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        @Nullable String output;
+
+        @Nullable Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            var child = new Node();
+
+            var newLabels = new char[labels.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            newLabels[insertAt] = c;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+
+            var newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newChildren[insertAt] = child;
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+    }
+
+    private static final class Output {
+        private final StringBuilder result;
+        private boolean geminateNext;
+        // Whether the last character is a short vowel that the next vowel may lengthen
+        private boolean lastIsShortVowel;
+
+        Output(int capacity) {
+            result = new StringBuilder(capacity);
+        }
+
+        void append(String unitOutput) {
+            for (int i = 0; i < unitOutput.length(); i++) {
+                append(unitOutput.charAt(i));
+            }
+        }
+
+        void append(char c) {
+            if (c == GEMINATE_NEXT) {
+                geminateNext = true;
+                return;
+            }
+
+            int last = result.length() - 1;
+
+            if (c == LENGTHEN_PREVIOUS) {
+                if (lastIsShortVowel) {
+                    append(result.charAt(last));
+                }
+                return;
+            }
+
+            if (geminateNext) {
+                geminateNext = false;
+                if (isConsonant(c)) {
+                    // っち is tchi rather than cchi
+                    result.append(c == 'c' ? 't' : c);
+                    last++;
+                }
+            }
+
+            if (lastIsShortVowel && isShortVowel(c)) {
+                char lengthened = lengthen(result.charAt(last), c);
+                if (lengthened != 0) {
+                    result.setCharAt(last, lengthened);
+                    lastIsShortVowel = false;
+                    return;
+                }
+            }
+
+            // Traditional Hepburn writes ん before b and p as m: shimbun is shinbun
+            if ((c == 'b' || c == 'p') && last >= 1 && result.charAt(last) == 'm' && isVowel(result.charAt(last - 1))) {
+                result.setCharAt(last, 'n');
+            }
+
+            result.append(c);
+            lastIsShortVowel = isShortVowel(c);
+        }
+
+        @Override
+        public String toString() {
+            return result.toString();
+        }
+
+        private static char lengthen(char previous, char c) {
+            return switch (previous) {
+                case 'a' -> c == 'a' ? 'ā' : 0;
+                case 'e' -> c == 'e' ? 'ē' : 0;
+                case 'o' -> c == 'o' || c == 'u' ? 'ō' : 0;
+                case 'u' -> c == 'u' ? 'ū' : 0;
+                default -> 0;
+            };
+        }
+
+        private static boolean isShortVowel(char c) {
+            return c == 'a' || c == 'i' || c == 'u' || c == 'e' || c == 'o';
+        }
+
+        private static boolean isVowel(char c) {
+            return isShortVowel(c) || c == 'ā' || c == 'ē' || c == 'ō' || c == 'ū';
+        }
+
+        private static boolean isConsonant(char c) {
+            return c >= 'a' && c <= 'z' && !isShortVowel(c) && c != 'n';
+        }
+    }
+
+    // Kunrei-shiki, Nihon-shiki and wapuro spellings, and the Hepburn spellings they must not be confused with
+    private static final Map<String, String> ROMAJI_UNITS = Map.ofEntries(
+            Map.entry("sh", "sh"), Map.entry("ch", "ch"), Map.entry("ts", "ts"),
+            Map.entry("si", "shi"), Map.entry("ti", "chi"), Map.entry("tu", "tsu"), Map.entry("hu", "fu"),
+            Map.entry("zi", "ji"), Map.entry("di", "ji"), Map.entry("du", "zu"), Map.entry("wo", "o"),
+            Map.entry("sya", "sha"), Map.entry("syu", "shu"), Map.entry("syo", "sho"),
+            Map.entry("tya", "cha"), Map.entry("tyu", "chu"), Map.entry("tyo", "cho"),
+            Map.entry("cya", "cha"), Map.entry("cyu", "chu"), Map.entry("cyo", "cho"),
+            Map.entry("zya", "ja"), Map.entry("zyu", "ju"), Map.entry("zyo", "jo"),
+            Map.entry("jya", "ja"), Map.entry("jyu", "ju"), Map.entry("jyo", "jo"),
+            Map.entry("dya", "ja"), Map.entry("dyu", "ju"), Map.entry("dyo", "jo"),
+            Map.entry("cch", "tch"),
+            Map.entry("n'", "n"), Map.entry("n’", "n"),
+            Map.entry("â", "ā"), Map.entry("ê", "ē"), Map.entry("ô", "ō"), Map.entry("û", "ū"),
+            Map.entry("î", "ii"), Map.entry("ī", "ii")
+    );
+
+    // Hiragana units in Hepburn; katakana units are derived from them
+    private static final Map<String, String> KANA_UNITS = buildKanaUnits();
+
+    private static Map<String, String> buildKanaUnits() {
+        var units = new LinkedHashMap<String, String>();
+
+        var syllables = new String[][] {
+                {"あ", "a"}, {"い", "i"}, {"う", "u"}, {"え", "e"}, {"お", "o"},
+                {"か", "ka"}, {"き", "ki"}, {"く", "ku"}, {"け", "ke"}, {"こ", "ko"},
+                {"が", "ga"}, {"ぎ", "gi"}, {"ぐ", "gu"}, {"げ", "ge"}, {"ご", "go"},
+                {"さ", "sa"}, {"し", "shi"}, {"す", "su"}, {"せ", "se"}, {"そ", "so"},
+                {"ざ", "za"}, {"じ", "ji"}, {"ず", "zu"}, {"ぜ", "ze"}, {"ぞ", "zo"},
+                {"た", "ta"}, {"ち", "chi"}, {"つ", "tsu"}, {"て", "te"}, {"と", "to"},
+                {"だ", "da"}, {"ぢ", "ji"}, {"づ", "zu"}, {"で", "de"}, {"ど", "do"},
+                {"な", "na"}, {"に", "ni"}, {"ぬ", "nu"}, {"ね", "ne"}, {"の", "no"},
+                {"は", "ha"}, {"ひ", "hi"}, {"ふ", "fu"}, {"へ", "he"}, {"ほ", "ho"},
+                {"ば", "ba"}, {"び", "bi"}, {"ぶ", "bu"}, {"べ", "be"}, {"ぼ", "bo"},
+                {"ぱ", "pa"}, {"ぴ", "pi"}, {"ぷ", "pu"}, {"ぺ", "pe"}, {"ぽ", "po"},
+                {"ま", "ma"}, {"み", "mi"}, {"む", "mu"}, {"め", "me"}, {"も", "mo"},
+                {"や", "ya"}, {"ゆ", "yu"}, {"よ", "yo"},
+                {"ら", "ra"}, {"り", "ri"}, {"る", "ru"}, {"れ", "re"}, {"ろ", "ro"},
+                {"わ", "wa"}, {"ゐ", "i"}, {"ゑ", "e"}, {"を", "o"}, {"ん", "n"}, {"ゔ", "vu"},
+                {"ぁ", "a"}, {"ぃ", "i"}, {"ぅ", "u"}, {"ぇ", "e"}, {"ぉ", "o"},
+                {"ゃ", "ya"}, {"ゅ", "yu"}, {"ょ", "yo"}, {"ゎ", "wa"},
+                {"っ", String.valueOf(GEMINATE_NEXT)},
+        };
+        for (var syllable : syllables) {
+            units.put(syllable[0], syllable[1]);
+        }
+
+        // Yōon: an i-row kana followed by a small ya, yu or yo
+        var yoonConsonants = new String[][] {
+                {"き", "ky"}, {"ぎ", "gy"}, {"し", "sh"}, {"じ", "j"}, {"ち", "ch"}, {"ぢ", "j"}, {"に", "ny"},
+                {"ひ", "hy"}, {"び", "by"}, {"ぴ", "py"}, {"み", "my"}, {"り", "ry"},
+        };
+        var smallY = new String[][] {{"ゃ", "a"}, {"ゅ", "u"}, {"ょ", "o"}};
+        for (var consonant : yoonConsonants) {
+            for (var vowel : smallY) {
+                units.put(consonant[0] + vowel[0], consonant[1] + vowel[1]);
+            }
+        }
+
+        // Combinations used for loanwords, mostly in katakana
+        var extended = new String[][] {
+                {"ふぁ", "fa"}, {"ふぃ", "fi"}, {"ふぇ", "fe"}, {"ふぉ", "fo"},
+                {"てぃ", "ti"}, {"でぃ", "di"}, {"とぅ", "tu"}, {"どぅ", "du"},
+                {"しぇ", "she"}, {"ちぇ", "che"}, {"じぇ", "je"}, {"つぁ", "tsa"},
+                {"うぃ", "wi"}, {"うぇ", "we"}, {"うぉ", "wo"},
+                {"ゔぁ", "va"}, {"ゔぃ", "vi"}, {"ゔぇ", "ve"}, {"ゔぉ", "vo"},
+        };
+        for (var unit : extended) {
+            units.put(unit[0], unit[1]);
+        }
+
+        return units;
+    }
+}
@@ -2,27 +2,74 @@ package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
 
 import com.munetmo.lingetic.LanguageService.Entities.Language;
 import com.munetmo.lingetic.LanguageService.Entities.Token;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSink;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSpans;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 public sealed interface LanguageModel permits EnglishLanguageModel, FrenchLanguageModel, TurkishLanguageModel,
-        SwedishLanguageModel, JapaneseModifiedHepburnLanguageModel, GermanLanguageModel {
+        SwedishLanguageModel, JapaneseModifiedHepburnLanguageModel, GermanLanguageModel, JapaneseLanguageModel {
     Language getLanguage();
 
     boolean areEquivalent(String s1, String s2);
 
+    /**
+     * Normalized form of an answer. Two answers are equivalent exactly when their canonical forms are equal.
+     */
+    String canonicalize(String answer);
+
+    /**
+     * Whether {@code answer} doesn't match {@code canonicalAnswer} but is within a few typos of it. The number of
+     * typos tolerated grows with the length of the answer; short answers must match exactly.
+     */
+    boolean isNearMiss(String answer, String canonicalAnswer);
+
+    /**
+     * Whether {@code answer} matches {@code canonicalAnswer} word for word when inflected forms of the same word
+     * are considered equal, such as "einen" and "ein". Always false for languages without a lemma lexicon.
+     */
+    boolean matchesLemmas(String answer, String canonicalAnswer);
+
     List<Token> tokenize(String sentence);
 
+    /**
+     * Same tokens as {@link #tokenize}, as offsets into {@code sentence} instead of a list of {@link Token}s.
+     */
+    TokenSpans tokenizeSpans(CharSequence sentence);
+
+    /**
+     * Streams the tokens of arbitrarily large text, such as a {@link java.io.Reader} over a book, to {@code sink}
+     * with bounded memory. Start indices are offsets from the beginning of the stream.
+     */
+    void tokenize(Readable input, TokenSink sink) throws IOException;
+
     String combineTokens(List<Token> tokens);
 
+    /**
+     * Tokenizes every sentence on the common fork-join pool. Results are in the same order as {@code sentences}.
+     */
+    default List<List<Token>> tokenizeAll(List<String> sentences) {
+        return sentences.parallelStream()
+                .map(this::tokenize)
+                .toList();
+    }
+
+    default List<String> combineAllTokens(List<List<Token>> tokenLists) {
+        return tokenLists.parallelStream()
+                .map(this::combineTokens)
+                .toList();
+    }
+
     static Map<Language, LanguageModel> languageModels = Map.of(
             Language.English, new EnglishLanguageModel(),
             Language.French, new FrenchLanguageModel(),
             Language.Turkish, new TurkishLanguageModel(),
             Language.Swedish, new SwedishLanguageModel(),
             Language.JapaneseModifiedHepburn, new JapaneseModifiedHepburnLanguageModel(),
-            Language.German, new GermanLanguageModel()
+            Language.German, new GermanLanguageModel(),
+            Language.Japanese, new JapaneseLanguageModel()
     );
 
     static LanguageModel getLanguageModel(Language language) {
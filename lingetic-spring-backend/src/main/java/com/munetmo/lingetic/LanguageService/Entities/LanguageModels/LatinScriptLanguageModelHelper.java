@@ -1,39 +1,192 @@
 package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
 
+import com.munetmo.lingetic.LanguageService.Entities.FoldingMode;
 import com.munetmo.lingetic.LanguageService.Entities.Token;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSink;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSpans;
 import com.munetmo.lingetic.LanguageService.Entities.TokenType;
 import org.jspecify.annotations.Nullable;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.CharBuffer;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public final class LatinScriptLanguageModelHelper {
-    private static final String SPECIFIC_CHARACTERS = "àâäæçéèêëîïôœùûüÿçğıöşüåäöāīūēō";
     private static final String SURROUNDING_PUNCTUATION = "'\"«»";
 
+    // Stands in for the missing neighbour of the first and last character
+    private static final int NO_CHAR = -1;
+    private static final int STREAMING_CHUNK_SIZE = 8192;
+    private static final int MAX_STREAMED_TOKEN_LENGTH = 64 * 1024;
+    // Holds the input word matchesLemmas is looking at, so grading doesn't allocate one per word
+    private static final ThreadLocal<StringBuilder> lemmaWordScratch = ThreadLocal.withInitial(StringBuilder::new);
+
     private final Locale locale;
+    private final boolean lithuanian;
+    private final FoldingTable foldingTable;
+    private final @Nullable LemmaLexicon lemmaLexicon;
 
     public LatinScriptLanguageModelHelper(Locale locale) {
+        this(locale, FoldingMode.Strict, Map.of());
+    }
+
+    /**
+     * @param orthographicVariants accepted alternative spellings of lower-case letters, used only in
+     *                             {@link FoldingMode#OrthographicVariants} mode
+     */
+    public LatinScriptLanguageModelHelper(Locale locale, FoldingMode foldingMode, Map<Character, String> orthographicVariants) {
+        this(locale, foldingMode, orthographicVariants, null);
+    }
+
+    /**
+     * @param lemmaLexicon forms of the language's words, for {@link #matchesLemmas}; null if there is none
+     */
+    LatinScriptLanguageModelHelper(Locale locale, FoldingMode foldingMode, Map<Character, String> orthographicVariants,
+                                   @Nullable LemmaLexicon lemmaLexicon) {
         this.locale = locale;
+        this.lithuanian = locale.getLanguage().equals("lt");
+        this.foldingTable = FoldingTable.build(locale, foldingMode, orthographicVariants);
+        this.lemmaLexicon = lemmaLexicon;
     }
 
+    /**
+     * Two answers are equivalent when they match after each whitespace separated word is lower-cased, folded
+     * according to the {@link FoldingMode}, stripped of leading and trailing punctuation, and empty words are
+     * dropped.
+     * The comparison streams both inputs through a {@link NormalizedAnswerCursor} in lock-step, so no
+     * normalized copy of either input is built.
+     */
     public boolean areEquivalent(String s1, String s2) {
-        String n1 = normalize(s1);
-        String n2 = normalize(s2);
-        return n1.equals(n2);
+        var c1 = new NormalizedAnswerCursor(this, s1);
+        var c2 = new NormalizedAnswerCursor(this, s2);
+
+        while (true) {
+            int cp1 = c1.next();
+            int cp2 = c2.next();
+            if (cp1 != cp2) {
+                return false;
+            }
+            if (cp1 == NormalizedAnswerCursor.END) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the normalized form of an answer that {@link #areEquivalent} compares.
+     */
+    public String canonicalize(String input) {
+        var cursor = new NormalizedAnswerCursor(this, input);
+        var result = new StringBuilder(input.length());
+        for (int cp = cursor.next(); cp != NormalizedAnswerCursor.END; cp = cursor.next()) {
+            result.appendCodePoint(cp);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Whether the normalized input differs from {@code canonical} by at least one and at most
+     * {@link BoundedEditDistance#maxTyposFor} single-character edits (insertion, deletion, substitution or swapping two neighbours).
+     */
+    public boolean isNearMiss(String input, String canonical) {
+        int targetLength = canonical.codePointCount(0, canonical.length());
+        int maxTypos = BoundedEditDistance.maxTyposFor(targetLength);
+        if (maxTypos == 0) {
+            return false;
+        }
+
+        var distance = BoundedEditDistance.forCurrentThread();
+
+        var target = distance.targetBuffer(targetLength);
+        for (int pos = 0, i = 0; pos < canonical.length(); i++) {
+            target[i] = canonical.codePointAt(pos);
+            pos += Character.charCount(target[i]);
+        }
+
+        // An input longer than this is already too far away, so there's no need to normalize the rest of it
+        int sourceLimit = targetLength + maxTypos;
+        var source = distance.sourceBuffer(sourceLimit);
+        var cursor = new NormalizedAnswerCursor(this, input);
+        int sourceLength = 0;
+        for (int cp = cursor.next(); cp != NormalizedAnswerCursor.END; cp = cursor.next()) {
+            if (sourceLength == sourceLimit) {
+                return false;
+            }
+            source[sourceLength++] = cp;
+        }
+
+        int edits = distance.compute(sourceLength, targetLength, maxTypos);
+        return edits > 0 && edits <= maxTypos;
+    }
+
+    /**
+     * Whether the normalized input has as many words as {@code canonical} and each of its words either equals
+     * the corresponding word of {@code canonical} or is, according to the lemma lexicon, a form of the same
+     * lemma. For instance "ich habe einen hund" and "ich hat ein hund". Always false without a lemma lexicon.
+     */
+    public boolean matchesLemmas(String input, String canonical) {
+        var lexicon = lemmaLexicon;
+        if (lexicon == null) {
+            return false;
+        }
+
+        // The input is normalized a word at a time by the cursor, as in areEquivalent, rather than canonicalized whole
+        var cursor = new NormalizedAnswerCursor(this, input);
+        var word = lemmaWordScratch.get();
+        int cp = cursor.next();
+        int start = 0;
+        while (true) {
+            word.setLength(0);
+            for (; cp != NormalizedAnswerCursor.END && cp != ' '; cp = cursor.next()) {
+                word.appendCodePoint(cp);
+            }
+            int end = wordEnd(canonical, start);
+
+            if (!regionEquals(word, canonical, start, end) && !lexicon.shareLemma(word, 0, word.length(), canonical, start, end)) {
+                return false;
+            }
+
+            if (cp == NormalizedAnswerCursor.END || end == canonical.length()) {
+                return cp == NormalizedAnswerCursor.END && end == canonical.length();
+            }
+            cp = cursor.next();
+            start = end + 1;
+        }
+    }
+
+    // Normalized answers separate words with a single space
+    private static int wordEnd(String normalized, int start) {
+        int end = normalized.indexOf(' ', start);
+        return end < 0 ? normalized.length() : end;
+    }
+
+    private static boolean regionEquals(CharSequence word, String text, int start, int end) {
+        if (word.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public List<Token> tokenize(String input) {
-        List<Token> tokens = new ArrayList<>();
-        if (input.isBlank()) return tokens;
+        return tokenizeSpans(input).toTokens();
+    }
 
-        int currentPos = 0;
+    public TokenSpans tokenizeSpans(CharSequence input) {
         int length = input.length();
-        var currentPart = new StringBuilder();
+        var spans = new TokenSpans(input, length / 4);
+
+        // Start of the word, number or punctuation cluster being scanned, or -1 between tokens
+        int partStart = -1;
 
-        while (currentPos < length) {
+        for (int currentPos = 0; currentPos < length; currentPos++) {
             var c = input.charAt(currentPos);
 
             // Tokens are separated by whitespace but punctuations need to be handled differently
@@ -41,57 +194,78 @@ public final class LatinScriptLanguageModelHelper {
             // [He; said,; "Hello,; world!"]
 
             if (Character.isWhitespace(c)) {
-                if (!currentPart.isEmpty()) {
-                    var token = getAppropriateToken(currentPart.toString(), currentPos - currentPart.length());
-                    tokens.add(token);
-                    currentPart.setLength(0);
+                if (partStart >= 0) {
+                    addPart(spans, input, partStart, currentPos);
+                    partStart = -1;
                 }
-                currentPos++;
                 continue;
             }
 
-            var previousChar = currentPos - 1 >= 0 ? input.charAt(currentPos - 1) : null;
-            var nextChar = currentPos + 1 < length ? input.charAt(currentPos + 1) : null;
+            var previousChar = currentPos > 0 ? input.charAt(currentPos - 1) : NO_CHAR;
+            var nextChar = currentPos + 1 < length ? input.charAt(currentPos + 1) : NO_CHAR;
             if (isStandalonePunctuation(c, previousChar, nextChar)) {
-                if (!currentPart.isEmpty()) {
-                    var token = getAppropriateToken(currentPart.toString(), currentPos - currentPart.length());
-                    tokens.add(token);
-                    currentPart.setLength(0);
+                if (partStart >= 0) {
+                    addPart(spans, input, partStart, currentPos);
+                    partStart = -1;
                 }
 
-                tokens.add(new Token(TokenType.Punctuation, String.valueOf(c), currentPos));
-                currentPos++;
+                spans.add(TokenType.Punctuation, currentPos, currentPos + 1);
                 continue;
             }
 
-            currentPart.append(c);
-            currentPos++;
+            if (partStart < 0) {
+                partStart = currentPos;
+            }
         }
 
-        if (!currentPart.isEmpty()) {
-            var token = getAppropriateToken(currentPart.toString(), currentPos - currentPart.length());
-            tokens.add(token);
+        if (partStart >= 0) {
+            addPart(spans, input, partStart, length);
         }
 
-        return tokens;
+        return spans;
     }
 
-    private Token getAppropriateToken(String value, int startIndex) {
-        if (containsLetter(value)) {
-            return new Token(TokenType.Word, value, startIndex);
-        } else if (containsDigit(value)) {
-            return new Token(TokenType.Number, value, startIndex);
-        } else {
-            return new Token(TokenType.Punctuation, value, startIndex);
+    private void addPart(TokenSpans spans, CharSequence input, int start, int end) {
+        var containsDigit = false;
+        for (int i = start; i < end; i++) {
+            var c = input.charAt(i);
+            if (Character.isLetter(c)) {
+                spans.add(TokenType.Word, start, end);
+                return;
+            }
+            containsDigit |= Character.isDigit(c);
         }
+
+        spans.add(containsDigit ? TokenType.Number : TokenType.Punctuation, start, end);
     }
 
-    private boolean isStandalonePunctuation(char currentChar, @Nullable Character previousChar, @Nullable Character nextChar) {
+    /**
+     * Tokenizes {@code input} without holding it in memory, producing the same tokens as {@link #tokenize}.
+     * Tokens are passed to {@code sink} as soon as they are complete; memory use is bounded by the read chunk
+     * and the longest token.
+     */
+    public void tokenize(Readable input, TokenSink sink) throws IOException {
+        var tokenizer = new StreamingTokenizer(sink);
+        var chunk = CharBuffer.allocate(STREAMING_CHUNK_SIZE);
+        var chars = chunk.array();
+
+        while (input.read(chunk) >= 0) {
+            int length = chunk.position();
+            for (int i = 0; i < length; i++) {
+                tokenizer.accept(chars[i]);
+            }
+            chunk.clear();
+        }
+
+        tokenizer.finish();
+    }
+
+    private static boolean isStandalonePunctuation(char currentChar, int previousChar, int nextChar) {
         if (Character.isLetter(currentChar) || Character.isDigit(currentChar)) {
             return false; // not a punctuation
         }
 
-        if (previousChar == null || nextChar == null) {
+        if (previousChar == NO_CHAR || nextChar == NO_CHAR) {
             return true; // trailing punctuation
         }
 
@@ -99,7 +273,7 @@ public final class LatinScriptLanguageModelHelper {
             return true; // trailing punctuation
         }
 
-        if (isPunctuation(previousChar) || isPunctuation(nextChar)) {
+        if (isPunctuation((char) previousChar) || isPunctuation((char) nextChar)) {
             // adjacent to a punctuations is a punctuation: "...", "?!", '"world!"' etc.
             return true;
         }
@@ -107,7 +281,7 @@ public final class LatinScriptLanguageModelHelper {
         return false;
     }
 
-    private boolean isPunctuation(char c) {
+    private static boolean isPunctuation(char c) {
         return !Character.isLetterOrDigit(c) && !Character.isWhitespace(c);
     }
 
@@ -173,24 +347,254 @@ public final class LatinScriptLanguageModelHelper {
         return result.toString().trim();
     }
 
-    private String normalize(String input) {
-        var words = input.split("\\s+");
-        var cleaned = Arrays.stream(words)
-                .map(w -> w.trim().toLowerCase(locale))
-                .map(w -> {
-                    String regex = String.format("^[^a-z0-9%s]+|[^a-z0-9%s]+$",
-                            SPECIFIC_CHARACTERS, SPECIFIC_CHARACTERS);
-                    return w.replaceAll(regex, "");
-                })
-                .filter(w -> !w.isBlank());
-        return String.join(" ", cleaned.toList());
+    private static boolean isSeparator(char c) {
+        // Same set as the regex class \s: words are split on ASCII whitespace only.
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
-    private boolean containsLetter(String s) {
-        return s.chars().anyMatch(Character::isLetter);
+    /**
+     * Characters whose lower-case form depends on their neighbours (final sigma, dotted capital I,
+     * combining dot above) can't be folded one code point at a time.
+     */
+    private static boolean needsContextualLowerCasing(char c) {
+        return c == '\u03A3' || c == '\u0130' || c == '\u0307';
     }
 
-    private boolean containsDigit(String s) {
-        return s.chars().anyMatch(Character::isDigit);
+    /**
+     * Walks an answer and yields the code points of its normalized form one at a time: folded words trimmed to
+     * their first and last significant character, separated by a single space.
+     * Characters are folded through the {@link FoldingTable}. The rare word that needs context-sensitive casing
+     * is first lower-cased with {@link String#toLowerCase(Locale)}, which keeps the result identical to
+     * lower-casing every word as a whole; folding an already lower-case character gives the same result.
+     */
+    private static final class NormalizedAnswerCursor {
+        static final int END = -1;
+
+        private final LatinScriptLanguageModelHelper helper;
+        private final FoldingTable table;
+        private final String input;
+        private int inputPos;
+
+        private CharSequence word;
+        private int wordPos;
+        private int wordEnd;
+        private boolean emittedWord;
+
+        // Remaining characters of a multi-character fold, such as the second s of ß -> ss
+        private int expansionPos;
+        private int expansionEnd;
+
+        NormalizedAnswerCursor(LatinScriptLanguageModelHelper helper, String input) {
+            this.helper = helper;
+            this.table = helper.foldingTable;
+            this.input = input;
+            this.word = input;
+        }
+
+        int next() {
+            if (expansionPos < expansionEnd) {
+                return table.expansionChar(expansionPos++);
+            }
+
+            while (wordPos < wordEnd) {
+                int folded = nextInWord();
+                if (folded != END) {
+                    return folded;
+                }
+            }
+
+            if (!advanceToNextWord()) {
+                return END;
+            }
+
+            if (emittedWord) {
+                return ' ';
+            }
+
+            emittedWord = true;
+            return next();
+        }
+
+        // Next folded code point of the current word, or END if the character folds to nothing
+        private int nextInWord() {
+            int cp = Character.codePointAt(word, wordPos);
+            wordPos += Character.charCount(cp);
+
+            if (Character.isSupplementaryCodePoint(cp)) {
+                return Character.toLowerCase(cp);
+            }
+
+            int entry = table.entry((char) cp);
+            if (FoldingTable.isIdentity(entry)) {
+                return cp;
+            }
+
+            return switch (FoldingTable.length(entry)) {
+                case 0 -> END;
+                case 1 -> FoldingTable.folded(entry);
+                default -> {
+                    int start = FoldingTable.expansionStart(entry);
+                    expansionPos = start + 1;
+                    expansionEnd = start + FoldingTable.length(entry);
+                    yield table.expansionChar(start);
+                }
+            };
+        }
+
+        private boolean advanceToNextWord() {
+            int length = input.length();
+            while (inputPos < length) {
+                while (inputPos < length && isSeparator(input.charAt(inputPos))) {
+                    inputPos++;
+                }
+
+                int start = inputPos;
+                boolean contextual = helper.lithuanian;
+                while (inputPos < length && !isSeparator(input.charAt(inputPos))) {
+                    contextual |= needsContextualLowerCasing(input.charAt(inputPos));
+                    inputPos++;
+                }
+
+                if (start < inputPos && selectWord(start, inputPos, contextual)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean selectWord(int start, int end, boolean contextual) {
+            if (contextual) {
+                word = input.substring(start, end).trim().toLowerCase(helper.locale);
+                start = 0;
+                end = word.length();
+            } else {
+                word = input;
+            }
+
+            int first = start;
+            while (first < end) {
+                int cp = Character.codePointAt(word, first);
+                if (isSignificant(cp)) {
+                    break;
+                }
+                first += Character.charCount(cp);
+            }
+
+            int last = end;
+            while (last > first) {
+                int cp = Character.codePointBefore(word, last);
+                if (isSignificant(cp)) {
+                    break;
+                }
+                last -= Character.charCount(cp);
+            }
+
+            wordPos = first;
+            wordEnd = last;
+            return first < last;
+        }
+
+        // Supplementary characters are never significant
+        private boolean isSignificant(int cp) {
+            return !Character.isSupplementaryCodePoint(cp) && FoldingTable.isSignificant(table.entry((char) cp));
+        }
+    }
+
+    /**
+     * Push-based counterpart of {@link #tokenizeSpans}. Whether a character is standalone punctuation depends on
+     * the character after it, so each character is classified one step late, once its successor has arrived.
+     */
+    private static final class StreamingTokenizer {
+        private final TokenSink sink;
+
+        private char[] part = new char[64];
+        private CharBuffer partView = CharBuffer.wrap(part);
+        private int partLength;
+        private long partStart;
+        private boolean partHasLetter;
+        private boolean partHasDigit;
+
+        private int previousChar = NO_CHAR;
+        private int pendingChar = NO_CHAR;
+        private long pendingIndex = -1;
+
+        StreamingTokenizer(TokenSink sink) {
+            this.sink = sink;
+        }
+
+        void accept(char c) {
+            if (pendingChar != NO_CHAR) {
+                process((char) pendingChar, c);
+                previousChar = pendingChar;
+            }
+            pendingChar = c;
+            pendingIndex++;
+        }
+
+        void finish() {
+            if (pendingChar != NO_CHAR) {
+                process((char) pendingChar, NO_CHAR);
+            }
+            flushPart();
+        }
+
+        private void process(char c, int nextChar) {
+            if (Character.isWhitespace(c)) {
+                flushPart();
+                return;
+            }
+
+            if (isStandalonePunctuation(c, previousChar, nextChar)) {
+                flushPart();
+                append(c);
+                emit(TokenType.Punctuation);
+                return;
+            }
+
+            append(c);
+        }
+
+        private void append(char c) {
+            if (partLength == 0) {
+                partStart = pendingIndex;
+            }
+
+            if (partLength == part.length) {
+                if (part.length >= MAX_STREAMED_TOKEN_LENGTH) {
+                    throw new IllegalArgumentException("Token starting at index %d is longer than %d characters"
+                            .formatted(partStart, MAX_STREAMED_TOKEN_LENGTH));
+                }
+                part = Arrays.copyOf(part, Math.min(part.length * 2, MAX_STREAMED_TOKEN_LENGTH));
+                partView = CharBuffer.wrap(part);
+            }
+
+            part[partLength++] = c;
+            partHasLetter |= Character.isLetter(c);
+            partHasDigit |= Character.isDigit(c);
+        }
+
+        private void flushPart() {
+            if (partLength == 0) {
+                return;
+            }
+
+            if (partHasLetter) {
+                emit(TokenType.Word);
+            } else if (partHasDigit) {
+                emit(TokenType.Number);
+            } else {
+                emit(TokenType.Punctuation);
+            }
+        }
+
+        private void emit(TokenType type) {
+            partView.limit(partLength);
+            partView.position(0);
+            sink.accept(type, partView, partStart);
+
+            partLength = 0;
+            partHasLetter = false;
+            partHasDigit = false;
+        }
     }
 }
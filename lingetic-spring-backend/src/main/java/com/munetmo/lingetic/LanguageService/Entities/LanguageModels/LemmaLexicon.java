@@ -0,0 +1,105 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Locale;
+
+/**
+ * Maps the inflected forms of a language's words to their lemmas, read from a lexicon compiled by
+ * {@code LemmaLexiconCompiler}, a build tool in the lexiconCompiler source set. Forms are stored in their canonical
+ * form, as produced by the language model's {@link LanguageModel#canonicalize}. The file is memory-mapped and
+ * lookups only read it, so a lexicon of millions of forms costs nothing on the heap and grading allocates nothing.
+ * <p>
+ * File layout, big-endian: magic, format version, trie slot count, form count and lemma reference count as ints;
+ * the {@link DoubleArrayTrie} of forms; then for each form the int offset of its first lemma reference, followed
+ * by one more offset marking the end of the last form's references; then the lemma references, which are int
+ * lemma ids in ascending order for each form. A form can have several lemmas, such as German "sein" (to be, or
+ * his).
+ */
+final class LemmaLexicon {
+    static final String RESOURCE_FORMAT = "lexicons/%s-lemmas.dat";
+    static final int MAGIC = 0x4C4C454D;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    private final DoubleArrayTrie trie;
+    private final IntBuffer offsets;
+    private final IntBuffer lemmas;
+    private final int formCount;
+
+    LemmaLexicon(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a compiled lemma lexicon");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported lemma lexicon version " + buffer.getInt(4));
+        }
+
+        int slotCount = buffer.getInt(8);
+        this.formCount = buffer.getInt(12);
+        int lemmaCount = buffer.getInt(16);
+
+        int offsetsOffset = HEADER_SIZE + DoubleArrayTrie.sizeInBytes(slotCount);
+        int lemmasOffset = offsetsOffset + (formCount + 1) * Integer.BYTES;
+        if (buffer.limit() < lemmasOffset + lemmaCount * Integer.BYTES) {
+            throw new IllegalArgumentException("Lemma lexicon is truncated");
+        }
+
+        this.trie = new DoubleArrayTrie(buffer.duplicate().position(HEADER_SIZE), slotCount);
+        this.offsets = buffer.slice(offsetsOffset, (formCount + 1) * Integer.BYTES).asIntBuffer();
+        this.lemmas = buffer.slice(lemmasOffset, lemmaCount * Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * The bundled lexicon of {@code language}, or null if none is bundled.
+     */
+    static @Nullable LemmaLexicon forLanguage(Language language) {
+        var buffer = MappedResources.mapIfPresent(resourceFor(language));
+        return buffer == null ? null : new LemmaLexicon(buffer);
+    }
+
+    static String resourceFor(Language language) {
+        return RESOURCE_FORMAT.formatted(language.name().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Whether the canonical words {@code text1[start1, end1)} and {@code text2[start2, end2)} are both in the
+     * lexicon and are forms of a common lemma.
+     */
+    boolean shareLemma(CharSequence text1, int start1, int end1, CharSequence text2, int start2, int end2) {
+        int form1 = trie.exactMatch(text1, start1, end1);
+        if (form1 == DoubleArrayTrie.NOT_FOUND) {
+            return false;
+        }
+        int form2 = trie.exactMatch(text2, start2, end2);
+        if (form2 == DoubleArrayTrie.NOT_FOUND) {
+            return false;
+        }
+
+        // Both reference lists are sorted, so they intersect if a merge finds a common id
+        int i = offsets.get(form1);
+        int iEnd = offsets.get(form1 + 1);
+        int j = offsets.get(form2);
+        int jEnd = offsets.get(form2 + 1);
+        while (i < iEnd && j < jEnd) {
+            int lemma1 = lemmas.get(i);
+            int lemma2 = lemmas.get(j);
+            if (lemma1 == lemma2) {
+                return true;
+            }
+            if (lemma1 < lemma2) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return formCount;
+    }
+}
@@ -0,0 +1,58 @@
+package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-maps compiled lexicons from the classpath, so they are read in place instead of being copied onto the heap.
+ */
+final class MappedResources {
+    private MappedResources() {}
+
+    /**
+     * Maps {@code resource} read-only, or returns null if there is no such resource.
+     */
+    static @Nullable ByteBuffer mapIfPresent(String resource) {
+        var url = MappedResources.class.getClassLoader().getResource(resource);
+        if (url == null) {
+            return null;
+        }
+
+        try {
+            try (var channel = FileChannel.open(pathOf(url), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map resource " + resource, e);
+        }
+    }
+
+    // A resource inside a jar or a native image can't be mapped, so it is extracted to a temporary file first
+    private static Path pathOf(URL url) throws IOException {
+        if (url.getProtocol().equals("file")) {
+            try {
+                return Path.of(url.toURI());
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException("Invalid resource location " + url, e);
+            }
+        }
+
+        var extracted = Files.createTempFile("lingetic-lexicon", ".dat");
+        extracted.toFile().deleteOnExit();
+        try (InputStream in = url.openStream()) {
+            Files.copy(in, extracted, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return extracted;
+    }
+}
@@ -1,16 +1,21 @@
 package com.munetmo.lingetic.LanguageService.Entities.LanguageModels;
 
+import com.munetmo.lingetic.LanguageService.Entities.FoldingMode;
 import com.munetmo.lingetic.LanguageService.Entities.Language;
 import com.munetmo.lingetic.LanguageService.Entities.Token;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSink;
+import com.munetmo.lingetic.LanguageService.Entities.TokenSpans;
 import com.munetmo.lingetic.LanguageService.Entities.LanguageModels.LatinScriptLanguageModelHelper;
+import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public final class SwedishLanguageModel implements LanguageModel {
     private final LatinScriptLanguageModelHelper helper;
 
     public SwedishLanguageModel() {
-        this.helper = new LatinScriptLanguageModelHelper(Locale.forLanguageTag("sv-SE"));
+        this.helper = new LatinScriptLanguageModelHelper(Locale.forLanguageTag("sv-SE"), FoldingMode.OrthographicVariants, Map.of(), LemmaLexicon.forLanguage(Language.Swedish));
     }
 
     @Override
@@ -23,11 +28,36 @@ public final class SwedishLanguageModel implements LanguageModel {
         return helper.areEquivalent(s1, s2);
     }
 
+    @Override
+    public String canonicalize(String answer) {
+        return helper.canonicalize(answer);
+    }
+
+    @Override
+    public boolean isNearMiss(String answer, String canonicalAnswer) {
+        return helper.isNearMiss(answer, canonicalAnswer);
+    }
+
+    @Override
+    public boolean matchesLemmas(String answer, String canonicalAnswer) {
+        return helper.matchesLemmas(answer, canonicalAnswer);
+    }
+
     @Override
     public List<Token> tokenize(String input) {
         return helper.tokenize(input);
     }
 
+    @Override
+    public TokenSpans tokenizeSpans(CharSequence input) {
+        return helper.tokenizeSpans(input);
+    }
+
+    @Override
+    public void tokenize(Readable input, TokenSink sink) throws IOException {
+        helper.tokenize(input, sink);
+    }
+
     @Override
     public String combineTokens(List<Token> tokens) {
         return helper.combineTokens(tokens);
@@ -0,0 +1,10 @@
+package com.munetmo.lingetic.LanguageService.Entities;
+
+/**
+ * Receives tokens from a streaming tokenizer. {@code value} is only valid for the duration of the call; copy it
+ * with {@code toString()} to keep it.
+ */
+@FunctionalInterface
+public interface TokenSink {
+    void accept(TokenType type, CharSequence value, long startIndex);
+}
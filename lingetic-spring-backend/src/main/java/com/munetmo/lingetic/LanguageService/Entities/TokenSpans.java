@@ -0,0 +1,121 @@
+package com.munetmo.lingetic.LanguageService.Entities;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Tokens of a sentence stored as parallel primitive arrays: a type ordinal and the [start, end) offsets of each
+ * token in the original text. Token values are sliced out of the source only when asked for, so tokenizing
+ * doesn't allocate a String or a {@link Token} per token.
+ */
+public final class TokenSpans {
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+    private static final int MIN_CAPACITY = 8;
+
+    private final CharSequence source;
+    private byte[] types;
+    private int[] starts;
+    private int[] ends;
+    private int size;
+
+    public TokenSpans(CharSequence source, int expectedSize) {
+        var capacity = Math.max(expectedSize, MIN_CAPACITY);
+
+        this.source = source;
+        this.types = new byte[capacity];
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.size = 0;
+    }
+
+    public void add(TokenType type, int start, int end) {
+        if (start < 0 || end <= start || end > source.length()) {
+            throw new IllegalArgumentException("Invalid token span [%d, %d)".formatted(start, end));
+        }
+
+        if (size == types.length) {
+            var capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+
+        types[size] = (byte) type.ordinal();
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    public CharSequence source() {
+        return source;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public TokenType type(int index) {
+        return TOKEN_TYPES[types[checkIndex(index)]];
+    }
+
+    public int start(int index) {
+        return starts[checkIndex(index)];
+    }
+
+    public int end(int index) {
+        return ends[checkIndex(index)];
+    }
+
+    public CharSequence valueSpan(int index) {
+        return source.subSequence(start(index), end(index));
+    }
+
+    public String value(int index) {
+        return valueSpan(index).toString();
+    }
+
+    public Token token(int index) {
+        return new Token(type(index), value(index), start(index));
+    }
+
+    /**
+     * A read-only list that builds each {@link Token} when it is accessed.
+     */
+    public List<Token> asTokens() {
+        return new TokenView();
+    }
+
+    public List<Token> toTokens() {
+        var tokens = new ArrayList<Token>(size);
+        for (int i = 0; i < size; i++) {
+            tokens.add(token(i));
+        }
+        return tokens;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index %d out of bounds for %d tokens".formatted(index, size));
+        }
+        return index;
+    }
+
+    private final class TokenView extends AbstractList<Token> implements RandomAccess {
+        @Override
+        public Token get(int index) {
+            return token(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.munetmo.lingetic.LanguageService.infra.HTTP;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageService.Entities.LanguageModels.LanguageModel;
+import com.munetmo.lingetic.LanguageService.Entities.Token;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Batch versions of the {@link LanguageServiceController} endpoints for content tooling. Request bodies are either
+ * a JSON array or newline-delimited JSON values; responses are newline-delimited JSON, one line per input item, in
+ * input order. Items are processed in chunks across the fork-join pool and each chunk is flushed as soon as it is
+ * done. Unlike the single-sentence endpoints these require authentication, so they can be enabled in production.
+ */
+@RestController
+@RequestMapping("/language-service/batch")
+@ConditionalOnProperty(name = "app.language-service.batch.enabled", havingValue = "true")
+public class LanguageServiceBatchController {
+    public static final int MAX_BATCH_SIZE = 10_000;
+    private static final int CHUNK_SIZE = 256;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader sentenceReader;
+    private final ObjectReader tokenListReader;
+
+    public LanguageServiceBatchController(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.sentenceReader = objectMapper.readerFor(String.class);
+        this.tokenListReader = objectMapper.readerFor(new TypeReference<List<Token>>() {});
+    }
+
+    @PostMapping(
+            path = "/tokenize",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> tokenize(
+            @RequestParam("language") Language language,
+            InputStream body) throws IOException {
+        var model = LanguageModel.getLanguageModel(language);
+        List<String> sentences = readBatch(body, sentenceReader);
+        return streamInChunks(sentences, model::tokenizeAll);
+    }
+
+    @PostMapping(
+            path = "/combine-tokens",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> combineTokens(
+            @RequestParam("language") Language language,
+            InputStream body) throws IOException {
+        var model = LanguageModel.getLanguageModel(language);
+        List<List<Token>> tokenLists = readBatch(body, tokenListReader);
+        for (int i = 0; i < tokenLists.size(); i++) {
+            if (tokenLists.get(i).contains(null)) {
+                throw new IllegalArgumentException("Batch item %d contains a null token".formatted(i));
+            }
+        }
+        return streamInChunks(tokenLists, model::combineAllTokens);
+    }
+
+    // A root-level JSON array is unwrapped by the MappingIterator, so both body formats read the same way.
+    // Items are checked here, since a failure while streaming would come after the 200 status was sent.
+    private <T> List<T> readBatch(InputStream body, ObjectReader reader) throws IOException {
+        var items = new ArrayList<T>();
+        try (MappingIterator<T> iterator = reader.readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (items.size() == MAX_BATCH_SIZE) {
+                    throw new IllegalArgumentException("A batch cannot contain more than %d items".formatted(MAX_BATCH_SIZE));
+                }
+                var item = iterator.nextValue();
+                if (item == null) {
+                    throw new IllegalArgumentException("Batch item %d is null".formatted(items.size()));
+                }
+                items.add(item);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Batch must be a JSON array or newline-delimited JSON", e);
+        }
+        return items;
+    }
+
+    private <T, R> ResponseEntity<StreamingResponseBody> streamInChunks(List<T> items, Function<List<T>, List<R>> process) {
+        StreamingResponseBody responseBody = out -> {
+            for (int start = 0; start < items.size(); start += CHUNK_SIZE) {
+                var chunk = items.subList(start, Math.min(start + CHUNK_SIZE, items.size()));
+                for (var result : process.apply(chunk)) {
+                    out.write(objectMapper.writeValueAsBytes(result));
+                    out.write('\n');
+                }
+                out.flush();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(responseBody);
+    }
+}
@@ -4,12 +4,18 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.munetmo.lingetic.LanguageTestService.Entities.Questions.QuestionType;
 import com.munetmo.lingetic.LanguageTestService.infra.Deserializers.AttemptRequestDeserializer;
+import org.jspecify.annotations.Nullable;
 
 @JsonDeserialize(using = AttemptRequestDeserializer.class)
 public sealed interface AttemptRequest permits FillInTheBlanksAttemptRequest, TranslationAttemptRequest {
     QuestionType getQuestionType();
     String getSentenceID();
 
+    /**
+     * The token the question was sent with, if the client sent it back.
+     */
+    @Nullable String getQuestionToken();
+
     static AttemptRequest fromJsonNode(JsonNode node) {
         if (!node.has("questionType")) {
             throw new IllegalArgumentException("AttemptRequest must have a questionType");
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.munetmo.lingetic.LanguageTestService.Entities.Questions.QuestionType;
 import com.munetmo.lingetic.LanguageTestService.infra.Deserializers.AttemptRequestDeserializer;
+import org.jspecify.annotations.Nullable;
 
 import java.util.InputMismatchException;
 
@@ -12,14 +13,20 @@ public final class TranslationAttemptRequest implements AttemptRequest {
     private static final QuestionType questionType = QuestionType.Translation;
     private final String sentenceID;
     private final String userResponse;
+    private final @Nullable String questionToken;
 
     public TranslationAttemptRequest(String sentenceID, String userResponse) {
+        this(sentenceID, userResponse, null);
+    }
+
+    public TranslationAttemptRequest(String sentenceID, String userResponse, @Nullable String questionToken) {
         if (sentenceID.isBlank()) {
             throw new IllegalArgumentException("sentenceID cannot be blank.");
         }
 
         this.sentenceID = sentenceID;
         this.userResponse = userResponse;
+        this.questionToken = questionToken;
     }
 
     @Override
@@ -38,7 +45,9 @@ public final class TranslationAttemptRequest implements AttemptRequest {
             throw new InputMismatchException("userResponse is required.");
         }
 
-        return new TranslationAttemptRequest(sentenceID.asText(), userResponse.asText());
+        var questionToken = node.get("questionToken");
+        return new TranslationAttemptRequest(sentenceID.asText(), userResponse.asText(),
+            questionToken == null || questionToken.isNull() ? null : questionToken.asText());
     }
 
     @Override
@@ -49,4 +58,9 @@ public final class TranslationAttemptRequest implements AttemptRequest {
     public String getUserResponse() {
         return userResponse;
     }
+
+    @Override
+    public @Nullable String getQuestionToken() {
+        return questionToken;
+    }
 }
@@ -11,8 +11,13 @@ public final class FillInTheBlanksQuestionDTO implements QuestionDTO {
     public final String text;
     public final String hint;
     private final String sentenceID;
+    private final @Nullable String questionToken;
 
     public FillInTheBlanksQuestionDTO(String text, @Nullable String hint, String sentenceID) {
+        this(text, hint, sentenceID, null);
+    }
+
+    public FillInTheBlanksQuestionDTO(String text, @Nullable String hint, String sentenceID, @Nullable String questionToken) {
         if (text.isBlank()) {
             throw new IllegalArgumentException("text must not be blank");
         }
@@ -24,6 +29,7 @@ public final class FillInTheBlanksQuestionDTO implements QuestionDTO {
         this.text = text;
         this.hint = Objects.requireNonNullElse(hint, "");
         this.sentenceID = sentenceID;
+        this.questionToken = questionToken;
     }
 
     @Override
@@ -43,4 +49,9 @@ public final class FillInTheBlanksQuestionDTO implements QuestionDTO {
     public String getHint() {
         return hint;
     }
+
+    @Override
+    public @Nullable String getQuestionToken() {
+        return questionToken;
+    }
 }
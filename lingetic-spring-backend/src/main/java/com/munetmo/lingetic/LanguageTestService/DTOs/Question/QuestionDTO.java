@@ -4,19 +4,31 @@ import com.munetmo.lingetic.LanguageTestService.Entities.Questions.FillInTheBlan
 import com.munetmo.lingetic.LanguageTestService.Entities.Questions.Question;
 import com.munetmo.lingetic.LanguageTestService.Entities.Questions.QuestionType;
 import com.munetmo.lingetic.LanguageTestService.Entities.Questions.TranslationQuestion;
+import org.jspecify.annotations.Nullable;
 
 public sealed interface QuestionDTO permits FillInTheBlanksQuestionDTO, TranslationQuestionDTO {
     QuestionType getQuestionType();
     String getSentenceID();
 
+    /**
+     * Sent back with the attempt on the question, so it can be graded without looking the question up. Null when
+     * question tokens are turned off.
+     */
+    @Nullable String getQuestionToken();
+
     static QuestionDTO fromQuestion(Question question) {
+        return fromQuestion(question, null);
+    }
+
+    static QuestionDTO fromQuestion(Question question, @Nullable String questionToken) {
         return switch (question.getQuestionType()) {
             case FillInTheBlanks -> {
                 var typedQuestion = (FillInTheBlanksQuestion)question;
                 yield new FillInTheBlanksQuestionDTO(
                     typedQuestion.questionText,
                     typedQuestion.hint,
-                    typedQuestion.getSentenceID()
+                    typedQuestion.getSentenceID(),
+                    questionToken
                 );
             }
             case Translation -> {
@@ -25,7 +37,8 @@ public sealed interface QuestionDTO permits FillInTheBlanksQuestionDTO, Translat
                     typedQuestion.translateFromLanguage,
                     typedQuestion.translateToLanguage,
                     typedQuestion.toTranslateText,
-                    typedQuestion.getSentenceID()
+                    typedQuestion.getSentenceID(),
+                    questionToken
                 );
             }
         };
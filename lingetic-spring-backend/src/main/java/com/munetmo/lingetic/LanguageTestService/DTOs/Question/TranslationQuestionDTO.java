@@ -2,6 +2,7 @@ package com.munetmo.lingetic.LanguageTestService.DTOs.Question;
 
 import com.munetmo.lingetic.LanguageService.Entities.Language;
 import com.munetmo.lingetic.LanguageTestService.Entities.Questions.QuestionType;
+import org.jspecify.annotations.Nullable;
 
 public final class TranslationQuestionDTO implements QuestionDTO {
     public static final QuestionType questionType = QuestionType.Translation;
@@ -9,8 +10,14 @@ public final class TranslationQuestionDTO implements QuestionDTO {
     public final Language translateToLanguage;
     public final String toTranslateText;
     private final String sentenceID;
+    private final @Nullable String questionToken;
 
     public TranslationQuestionDTO(Language translateFromLanguage, Language translateToLanguage, String toTranslateText, String sentenceID) {
+        this(translateFromLanguage, translateToLanguage, toTranslateText, sentenceID, null);
+    }
+
+    public TranslationQuestionDTO(Language translateFromLanguage, Language translateToLanguage, String toTranslateText,
+            String sentenceID, @Nullable String questionToken) {
         if (toTranslateText.isBlank()) {
             throw new IllegalArgumentException("toTranslateText must not be blank");
         }
@@ -23,6 +30,7 @@ public final class TranslationQuestionDTO implements QuestionDTO {
         this.translateToLanguage = translateToLanguage;
         this.toTranslateText = toTranslateText;
         this.sentenceID = sentenceID;
+        this.questionToken = questionToken;
     }
 
     @Override
@@ -46,4 +54,9 @@ public final class TranslationQuestionDTO implements QuestionDTO {
     public Language getTranslateToLanguage() {
         return translateToLanguage;
     }
+
+    @Override
+    public @Nullable String getQuestionToken() {
+        return questionToken;
+    }
 }
@@ -11,4 +11,12 @@ public record SentenceReviewProcessingPayload(String userId, String sentenceId,
             throw new IllegalArgumentException("Sentence ID blank");
         }
     }
+
+    /**
+     * The ID of the task reviewing this attempt. Attempts on the same sentence by the same user within the same
+     * second get the same ID, so the queue treats them as duplicates.
+     */
+    public String taskID(long epochSecond) {
+        return "AttemptQuestionUseCase|" + userId + "|" + sentenceId + "|" + epochSecond;
+    }
 }
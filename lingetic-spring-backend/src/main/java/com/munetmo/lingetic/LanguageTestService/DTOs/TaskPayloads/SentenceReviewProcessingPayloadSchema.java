@@ -0,0 +1,100 @@
+package com.munetmo.lingetic.LanguageTestService.DTOs.TaskPayloads;
+
+import com.munetmo.lingetic.LanguageTestService.Entities.AttemptStatus;
+import com.munetmo.lingetic.lib.tasks.CompactTaskCodec;
+
+import java.util.UUID;
+
+/**
+ * The compact layout of {@link SentenceReviewProcessingPayload}: the user ID as a string, the sentence ID as a UUID
+ * and the status as one byte, followed by the epoch second of the task ID as a varint, since the rest of the ID is
+ * built from the payload. Sentence IDs that aren't UUIDs in their canonical form, and task IDs that aren't built by
+ * {@link SentenceReviewProcessingPayload#taskID}, are left to the JSON codec, so they reach the consumer unchanged.
+ * <p>
+ * The sentence reviewer worker decodes this layout too, so it changes only under a new tag.
+ */
+public final class SentenceReviewProcessingPayloadSchema
+        implements CompactTaskCodec.PayloadSchema<SentenceReviewProcessingPayload> {
+    private static final byte TAG = 1;
+
+    @Override
+    public byte tag() {
+        return TAG;
+    }
+
+    @Override
+    public Class<SentenceReviewProcessingPayload> payloadType() {
+        return SentenceReviewProcessingPayload.class;
+    }
+
+    @Override
+    public boolean write(SentenceReviewProcessingPayload payload, CompactTaskCodec.Writer out) {
+        UUID sentenceID;
+        try {
+            sentenceID = UUID.fromString(payload.sentenceId());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (!sentenceID.toString().equals(payload.sentenceId())) {
+            return false;
+        }
+
+        out.writeString(payload.userId());
+        out.writeUUID(sentenceID);
+        out.writeByte(statusCode(payload.status()));
+        return true;
+    }
+
+    @Override
+    public boolean writeID(String id, SentenceReviewProcessingPayload payload, CompactTaskCodec.Writer out) {
+        int separator = id.lastIndexOf('|');
+        long epochSecond;
+        try {
+            epochSecond = Long.parseLong(id, separator + 1, id.length(), 10);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        // Also rules out IDs of other shapes and numbers with a sign or leading zeros, which wouldn't read back the same
+        if (epochSecond < 0 || !id.equals(payload.taskID(epochSecond))) {
+            return false;
+        }
+
+        out.writeVarint(epochSecond);
+        return true;
+    }
+
+    @Override
+    public String readID(SentenceReviewProcessingPayload payload, CompactTaskCodec.Reader in) {
+        long epochSecond = in.readVarint();
+        if (epochSecond < 0) {
+            throw new IllegalArgumentException("Task ID epoch second is out of range");
+        }
+        return payload.taskID(epochSecond);
+    }
+
+    @Override
+    public SentenceReviewProcessingPayload read(CompactTaskCodec.Reader in) {
+        var userId = in.readString();
+        var sentenceId = in.readUUID().toString();
+        var status = status(in.readByte());
+        return new SentenceReviewProcessingPayload(userId, sentenceId, status);
+    }
+
+    // Fixed codes rather than ordinals, so reordering the enum can't change what's on the wire
+    private static int statusCode(AttemptStatus status) {
+        return switch (status) {
+            case Success -> 0;
+            case NearMiss -> 1;
+            case Failure -> 2;
+        };
+    }
+
+    private static AttemptStatus status(int code) {
+        return switch (code) {
+            case 0 -> AttemptStatus.Success;
+            case 1 -> AttemptStatus.NearMiss;
+            case 2 -> AttemptStatus.Failure;
+            default -> throw new IllegalArgumentException("Unknown attempt status code %d".formatted(code));
+        };
+    }
+}
@@ -1,5 +1,8 @@
 package com.munetmo.lingetic.LanguageTestService.Entities;
 
 public enum AttemptStatus {
-    Success, Failure
+    Success,
+    // Within a few typos of the answer; the attempt is shown as incorrect but counts as recalled
+    NearMiss,
+    Failure
 }
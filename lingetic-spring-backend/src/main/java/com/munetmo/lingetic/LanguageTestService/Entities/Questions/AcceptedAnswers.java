@@ -0,0 +1,76 @@
+package com.munetmo.lingetic.LanguageTestService.Entities.Questions;
+
+import com.munetmo.lingetic.LanguageService.Entities.LanguageModels.LanguageModel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Canonical forms of every answer a question accepts. They are computed once when the question is loaded, so
+ * grading an attempt normalizes the user's input once and does a single hash lookup, however many variants
+ * the question has.
+ */
+final class AcceptedAnswers {
+    private final LanguageModel languageModel;
+    private final Set<String> canonicalAnswers;
+
+    AcceptedAnswers(LanguageModel languageModel, String answer, List<String> alternatives) {
+        var canonicalAnswers = new HashSet<String>();
+        canonicalAnswers.add(languageModel.canonicalize(answer));
+        for (var alternative : alternatives) {
+            if (alternative.isBlank()) {
+                throw new IllegalArgumentException("Accepted answers cannot be blank");
+            }
+            canonicalAnswers.add(languageModel.canonicalize(alternative));
+        }
+
+        this.languageModel = languageModel;
+        this.canonicalAnswers = Set.copyOf(canonicalAnswers);
+    }
+
+    boolean accepts(String userResponse) {
+        return canonicalAnswers.contains(languageModel.canonicalize(userResponse));
+    }
+
+    // Only reached for wrong answers, so checking each variant in turn is fine
+    boolean isNearMiss(String userResponse) {
+        for (var canonicalAnswer : canonicalAnswers) {
+            if (languageModel.isNearMiss(userResponse, canonicalAnswer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean matchesLemmas(String userResponse) {
+        for (var canonicalAnswer : canonicalAnswers) {
+            if (languageModel.matchesLemmas(userResponse, canonicalAnswer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static List<String> fromQuestionTypeSpecificData(Map<String, Object> data, String key) {
+        var value = data.get(key);
+        if (value == null) {
+            return List.of();
+        }
+
+        if (!(value instanceof List<?> list)) {
+            throw new IllegalArgumentException("'%s' must be a list of strings".formatted(key));
+        }
+
+        var alternatives = new ArrayList<String>(list.size());
+        for (var item : list) {
+            if (!(item instanceof String alternative)) {
+                throw new IllegalArgumentException("'%s' must be a list of strings".formatted(key));
+            }
+            alternatives.add(alternative);
+        }
+        return List.copyOf(alternatives);
+    }
+}
@@ -25,8 +25,15 @@ public final class FillInTheBlanksQuestion implements Question {
     public final String questionText;
     public final String hint;
     public final String answer;
+    // Other answers that are also correct; answer is the one shown to the user
+    public final List<String> acceptedAnswers;
+    private final AcceptedAnswers canonicalAnswers;
 
     public FillInTheBlanksQuestion(String id, Language language, String questionText, @Nullable String hint, String answer, String sentenceId, List<WordExplanation> sourceWordExplanations) {
+        this(id, language, questionText, hint, answer, List.of(), sentenceId, sourceWordExplanations);
+    }
+
+    public FillInTheBlanksQuestion(String id, Language language, String questionText, @Nullable String hint, String answer, List<String> acceptedAnswers, String sentenceId, List<WordExplanation> sourceWordExplanations) {
         if (id.isBlank()) {
             throw new IllegalArgumentException("ID cannot be blank");
         }
@@ -52,6 +59,8 @@ public final class FillInTheBlanksQuestion implements Question {
         this.questionText = questionText;
         this.hint = Objects.requireNonNullElse(hint, "");
         this.answer = answer;
+        this.acceptedAnswers = List.copyOf(acceptedAnswers);
+        this.canonicalAnswers = new AcceptedAnswers(LanguageModel.getLanguageModel(language), answer, this.acceptedAnswers);
         this.sentenceId = sentenceId;
         this.sourceWordExplanations = sourceWordExplanations;
     }
@@ -87,10 +96,7 @@ public final class FillInTheBlanksQuestion implements Question {
             throw new IllegalArgumentException("Invalid request type");
         }
 
-        var areEquivalent = LanguageModel.getLanguageModel(language).areEquivalent(
-            typedRequest.getUserResponse(),
-            answer
-        );
+        var areEquivalent = canonicalAnswers.accepts(typedRequest.getUserResponse());
 
         return new FillInTheBlanksAttemptResponse(
             areEquivalent ? AttemptStatus.Success : AttemptStatus.Failure,
@@ -104,7 +110,8 @@ public final class FillInTheBlanksQuestion implements Question {
         return Map.of(
             "questionText", questionText,
             "hint", hint,
-            "answer", answer
+            "answer", answer,
+            "acceptedAnswers", acceptedAnswers
         );
     }
 
@@ -116,7 +123,8 @@ public final class FillInTheBlanksQuestion implements Question {
         var questionText = (String) data.get("questionText");
         var answer = (String) data.get("answer");
         var hint = (String) data.getOrDefault("hint", "");
+        var acceptedAnswers = AcceptedAnswers.fromQuestionTypeSpecificData(data, "acceptedAnswers");
 
-        return new FillInTheBlanksQuestion(id, language, questionText, hint, answer, sentenceId, sourceWordExplanations);
+        return new FillInTheBlanksQuestion(id, language, questionText, hint, answer, acceptedAnswers, sentenceId, sourceWordExplanations);
     }
 }
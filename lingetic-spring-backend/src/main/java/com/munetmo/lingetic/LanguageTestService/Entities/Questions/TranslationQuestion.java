@@ -7,10 +7,12 @@ import com.munetmo.lingetic.LanguageTestService.DTOs.Attempt.AttemptResponses.Tr
 import com.munetmo.lingetic.LanguageTestService.Entities.AttemptStatus;
 import com.munetmo.lingetic.LanguageService.Entities.Language;
 import com.munetmo.lingetic.LanguageService.Entities.LanguageModels.LanguageModel;
+import com.munetmo.lingetic.LanguageTestService.Entities.Sentence;
 import com.munetmo.lingetic.LanguageTestService.Entities.WordExplanation;
 
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 public final class TranslationQuestion implements Question {
     private final String id;
@@ -18,6 +20,9 @@ public final class TranslationQuestion implements Question {
     public final Language translateToLanguage;
     public final String toTranslateText;
     public final String translatedText;
+    // Other translations that are also correct; translatedText is the one shown to the user
+    public final List<String> acceptedTranslations;
+    private final AcceptedAnswers canonicalTranslations;
     private final String sentenceId;
     private final List<WordExplanation> sourceWordExplanations;
 
@@ -31,6 +36,18 @@ public final class TranslationQuestion implements Question {
             String translatedText,
             String sentenceId,
             List<WordExplanation> sourceWordExplanations) {
+        this(id, translateFromLanguage, translateToLanguage, toTranslateText, translatedText, List.of(), sentenceId, sourceWordExplanations);
+    }
+
+    public TranslationQuestion(
+            String id,
+            Language translateFromLanguage,
+            Language translateToLanguage,
+            String toTranslateText,
+            String translatedText,
+            List<String> acceptedTranslations,
+            String sentenceId,
+            List<WordExplanation> sourceWordExplanations) {
         if (id.isBlank()) {
             throw new IllegalArgumentException("ID cannot be blank");
         }
@@ -52,6 +69,9 @@ public final class TranslationQuestion implements Question {
         this.translateToLanguage = translateToLanguage;
         this.toTranslateText = toTranslateText;
         this.translatedText = translatedText;
+        this.acceptedTranslations = List.copyOf(acceptedTranslations);
+        this.canonicalTranslations = new AcceptedAnswers(
+            LanguageModel.getLanguageModel(translateToLanguage), translatedText, this.acceptedTranslations);
         this.sentenceId = sentenceId;
         this.sourceWordExplanations = sourceWordExplanations;
     }
@@ -87,13 +107,20 @@ public final class TranslationQuestion implements Question {
             throw new IllegalArgumentException("Invalid request type");
         }
 
-        var areEquivalent = LanguageModel.getLanguageModel(translateToLanguage).areEquivalent(
-            typedRequest.getUserResponse(),
-            translatedText
-        );
+        var userResponse = typedRequest.getUserResponse();
+
+        AttemptStatus status;
+        if (canonicalTranslations.accepts(userResponse)) {
+            status = AttemptStatus.Success;
+        } else if (canonicalTranslations.isNearMiss(userResponse) || canonicalTranslations.matchesLemmas(userResponse)) {
+            // A wrong ending is a mistake, but a smaller one than a wrong word
+            status = AttemptStatus.NearMiss;
+        } else {
+            status = AttemptStatus.Failure;
+        }
 
         return new TranslationAttemptResponse(
-            areEquivalent ? AttemptStatus.Success : AttemptStatus.Failure,
+            status,
             translatedText,
             sourceWordExplanations
         );
@@ -105,7 +132,24 @@ public final class TranslationQuestion implements Question {
             "translateFromLanguage", translateFromLanguage.name(),
             "translateToLanguage", translateToLanguage.name(),
             "toTranslateText", toTranslateText,
-            "translatedText", translatedText
+            "translatedText", translatedText,
+            "acceptedTranslations", acceptedTranslations
+        );
+    }
+
+    /**
+     * Asks for the source text of {@code sentence} given its translation, accepting any of its accepted source texts.
+     */
+    public static TranslationQuestion fromSentence(Sentence sentence) {
+        return new TranslationQuestion(
+            UUID.randomUUID().toString(),
+            sentence.translationLanguage(),
+            sentence.sourceLanguage(),
+            sentence.translationText(),
+            sentence.sourceText(),
+            sentence.acceptedSourceTexts(),
+            sentence.id().toString(),
+            sentence.sourceWordExplanations()
         );
     }
 
@@ -118,7 +162,8 @@ public final class TranslationQuestion implements Question {
         var translateToLanguage = Language.valueOf((String) data.get("translateToLanguage"));
         var toTranslateText = (String) data.get("toTranslateText");
         var translatedText = (String) data.get("translatedText");
+        var acceptedTranslations = AcceptedAnswers.fromQuestionTypeSpecificData(data, "acceptedTranslations");
 
-        return new TranslationQuestion(id, translateFromLanguage, translateToLanguage, toTranslateText, translatedText, sentenceId, sourceWordExplanations);
+        return new TranslationQuestion(id, translateFromLanguage, translateToLanguage, toTranslateText, translatedText, acceptedTranslations, sentenceId, sourceWordExplanations);
     }
 }
@@ -12,7 +12,9 @@ public record Sentence(
     Language translationLanguage,
     String translationText,
     int difficulty,
-    List<WordExplanation> sourceWordExplanations
+    List<WordExplanation> sourceWordExplanations,
+    // Other correct wordings of sourceText, accepted when the sentence is asked as a translation
+    List<String> acceptedSourceTexts
 ) {
     public Sentence {
         if (sourceText.isBlank()) {
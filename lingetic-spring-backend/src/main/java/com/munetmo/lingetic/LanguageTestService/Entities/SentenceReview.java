@@ -73,10 +73,31 @@ public class SentenceReview {
         nextReviewInstant = Instant.now().plus(interval, ChronoUnit.DAYS);
     }
 
+    /**
+     * Reviews with the quality the review worker gives an attempt with {@code status}. The worker's
+     * {@code getQualityFromStatus} in workers/sentencereviewer/usecase/review.go owns that mapping; this must be kept
+     * in step with it.
+     */
+    public void review(AttemptStatus status) {
+        review(switch (status) {
+            case Success -> 5;
+            case NearMiss -> 3;
+            case Failure -> 0;
+        });
+    }
+
     public Instant getNextReviewInstant() {
         return nextReviewInstant;
     }
 
+    /**
+     * When the review was last updated by an attempt, or created if there hasn't been one. Both this class and the
+     * review worker set the next review instant to that time plus the interval.
+     */
+    public Instant getLastReviewInstant() {
+        return nextReviewInstant.minus(interval, ChronoUnit.DAYS);
+    }
+
     public int getRepetitions() {
         return repetitions;
     }
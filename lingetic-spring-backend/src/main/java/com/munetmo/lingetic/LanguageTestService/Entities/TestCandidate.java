@@ -0,0 +1,12 @@
+package com.munetmo.lingetic.LanguageTestService.Entities;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A sentence that may go into a test, with the user's review of it, if they have seen it before.
+ */
+public record TestCandidate(
+    String sentenceID,
+    @Nullable SentenceReview review
+) {
+}
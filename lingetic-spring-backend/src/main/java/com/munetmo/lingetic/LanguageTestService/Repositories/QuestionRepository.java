@@ -4,13 +4,21 @@ import com.munetmo.lingetic.LanguageTestService.Exceptions.QuestionNotFoundExcep
 import com.munetmo.lingetic.LanguageTestService.Exceptions.QuestionWithIDAlreadyExistsException;
 import com.munetmo.lingetic.LanguageTestService.Entities.Questions.Question;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.SequencedMap;
 
 public interface QuestionRepository {
     void addQuestion(Question question) throws QuestionWithIDAlreadyExistsException;
     Question getQuestionByID(String id) throws QuestionNotFoundException;
     Question getQuestionBySentenceID(String sentenceID) throws QuestionNotFoundException;
     List<Question> getQuestionsBySentenceID(String sentenceID);
+
+    /**
+     * The questions of each of the given sentences, fetched together, keyed by sentence ID in the order the IDs
+     * are given. A sentence without questions maps to an empty list.
+     */
+    SequencedMap<String, List<Question>> getQuestionsBySentenceIDs(Collection<String> sentenceIDs);
     List<Question> getAllQuestions();
     void deleteAllQuestions();
 }
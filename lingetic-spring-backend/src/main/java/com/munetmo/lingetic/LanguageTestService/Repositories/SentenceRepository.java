@@ -1,12 +1,40 @@
 package com.munetmo.lingetic.LanguageTestService.Repositories;
 
 import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.TranslationQuestion;
 import com.munetmo.lingetic.LanguageTestService.Entities.Sentence;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.SequencedMap;
 
 public interface SentenceRepository {
     void deleteAllSentences();
     void addSentence(Sentence sentence);
     Sentence getSentenceByID(String id);
+
+    /**
+     * The sentences with the given IDs, fetched together, keyed by ID in the order the IDs are given. IDs
+     * without a sentence are left out.
+     */
+    SequencedMap<String, Sentence> getSentencesByIDs(Collection<String> ids);
+
+    /**
+     * The translation questions of the sentences with the given IDs, keyed like {@link #getSentencesByIDs}.
+     * Repositories that keep sentences in memory keep these with them, so a question's accepted answers are
+     * canonicalized once rather than on every request.
+     */
+    default SequencedMap<String, TranslationQuestion> getTranslationQuestionsByIDs(Collection<String> ids) {
+        var questions = new LinkedHashMap<String, TranslationQuestion>();
+        getSentencesByIDs(ids).forEach((id, sentence) -> questions.put(id, TranslationQuestion.fromSentence(sentence)));
+        return questions;
+    }
     List<Sentence> getUnreviewedSentences(String userID, Language language, int limit);
+
+    /**
+     * Called when an attempt on a sentence is handed to the review worker, which creates the user's review of it
+     * if there isn't one. Repositories that keep track of reviewed sentences in memory mark it there.
+     */
+    default void onAttemptSubmitted(String userID, String sentenceID, Language language) {
+    }
 }
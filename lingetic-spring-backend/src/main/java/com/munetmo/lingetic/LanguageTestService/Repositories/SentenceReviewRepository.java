@@ -1,6 +1,7 @@
 package com.munetmo.lingetic.LanguageTestService.Repositories;
 
 import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.AttemptStatus;
 import com.munetmo.lingetic.LanguageTestService.Entities.SentenceReview;
 import com.munetmo.lingetic.LanguageTestService.Entities.Sentence;
 
@@ -9,6 +10,14 @@ import java.util.List;
 public interface SentenceReviewRepository {
     List<SentenceReview> getTopSentencesToReview(String userID, Language language, int limit);
     List<SentenceReview> getAllReviews(String userID);
+    List<String> getReviewedSentenceIDs(String userID, Language language);
     void update(SentenceReview review);
     SentenceReview getReviewForSentenceOrCreateNew(String userID, Sentence sentence);
+
+    /**
+     * Called when an attempt is handed to the review worker, which updates the stored review. Repositories that
+     * keep reviews in memory apply the same update there.
+     */
+    default void onAttemptSubmitted(String userID, String sentenceID, Language language, AttemptStatus status) {
+    }
 }
\ No newline at end of file
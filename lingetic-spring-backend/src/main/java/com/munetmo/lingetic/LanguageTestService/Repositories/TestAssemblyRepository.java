@@ -0,0 +1,17 @@
+package com.munetmo.lingetic.LanguageTestService.Repositories;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.TestCandidate;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TestAssemblyRepository {
+    /**
+     * The sentences a test is assembled from, picked together: the user's {@code limit} reviews that are due
+     * soonest, ordered by due instant, followed by as many of the easiest sentences they haven't reviewed as
+     * there are free places after the reviews due before {@code now}. Only the sentences' IDs are returned, so
+     * their content can come from the content repositories' caches.
+     */
+    List<TestCandidate> assembleTest(String userID, Language language, int limit, Instant now);
+}
@@ -1,52 +1,46 @@
 package com.munetmo.lingetic.LanguageTestService.UseCases;
 
 import java.time.Instant;
-import java.util.UUID;
-import java.util.concurrent.ExecutorService;
+import java.util.List;
 
 import com.munetmo.lingetic.LanguageTestService.DTOs.Attempt.AttemptRequests.AttemptRequest;
 import com.munetmo.lingetic.LanguageTestService.DTOs.Attempt.AttemptResponses.AttemptResponse;
 import com.munetmo.lingetic.LanguageTestService.DTOs.TaskPayloads.SentenceReviewProcessingPayload;
 import com.munetmo.lingetic.LanguageTestService.Entities.Questions.Question;
 import com.munetmo.lingetic.LanguageTestService.Entities.Questions.QuestionType;
-import com.munetmo.lingetic.LanguageTestService.Entities.Questions.TranslationQuestion;
 import com.munetmo.lingetic.LanguageTestService.Exceptions.QuestionNotFoundException;
 import com.munetmo.lingetic.LanguageTestService.Queues.QueueNames;
 import com.munetmo.lingetic.LanguageTestService.Repositories.QuestionRepository;
 import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceRepository;
+import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceReviewRepository;
 import com.munetmo.lingetic.lib.tasks.TaskQueue;
 
 public class AttemptQuestionUseCase {
     private final SentenceRepository sentenceRepository;
     private final QuestionRepository questionRepository;
+    private final SentenceReviewRepository sentenceReviewRepository;
 
     private final TaskQueue taskQueue;
-    private final ExecutorService taskSubmitExecutor;
+    private final TestBatchPrefetcher testBatchPrefetcher;
+    private final QuestionTokens questionTokens;
 
-    public AttemptQuestionUseCase(SentenceRepository sentenceRepository, QuestionRepository questionRepository, TaskQueue taskQueue,
-            ExecutorService taskSubmitExecutor) {
+    public AttemptQuestionUseCase(SentenceRepository sentenceRepository, QuestionRepository questionRepository,
+            SentenceReviewRepository sentenceReviewRepository, TaskQueue taskQueue,
+            TestBatchPrefetcher testBatchPrefetcher, QuestionTokens questionTokens) {
         this.sentenceRepository = sentenceRepository;
         this.questionRepository = questionRepository;
+        this.sentenceReviewRepository = sentenceReviewRepository;
         this.taskQueue = taskQueue;
-        this.taskSubmitExecutor = taskSubmitExecutor;
+        this.testBatchPrefetcher = testBatchPrefetcher;
+        this.questionTokens = questionTokens;
     }
 
     public AttemptResponse execute(String userId, AttemptRequest request)
             throws QuestionNotFoundException {
-        Question question;
-        if (request.getQuestionType() == QuestionType.Translation) {
-            var sentence = sentenceRepository.getSentenceByID(request.getSentenceID());
-            question = new TranslationQuestion(
-                    UUID.randomUUID().toString(),
-                    sentence.translationLanguage(),
-                    sentence.sourceLanguage(),
-                    sentence.translationText(),
-                    sentence.sourceText(),
-                    sentence.id().toString(),
-                    sentence.sourceWordExplanations()
-            );
-        } else {
-            question = questionRepository.getQuestionBySentenceID(request.getSentenceID());
+        // The question is graded from its token if the client sent one back, and looked up otherwise
+        var question = questionTokens.open(userId, request);
+        if (question == null) {
+            question = lookUpQuestion(request);
         }
 
         var response = question.assessAttempt(request);
@@ -56,21 +50,29 @@ public class AttemptQuestionUseCase {
                 request.getSentenceID(),
                 response.getAttemptStatus());
 
-        var unused = taskSubmitExecutor.submit(() -> {
-            taskQueue.submitTask(
-                    generateTaskId(userId, request.getSentenceID()),
-                    payload,
-                    QueueNames.REVIEW_PROCESSING_QUEUE);
-        });
+        // Only queues the task; it is published in the background
+        taskQueue.submitTask(
+                payload.taskID(Instant.now().getEpochSecond()),
+                payload,
+                QueueNames.REVIEW_PROCESSING_QUEUE);
+        sentenceReviewRepository.onAttemptSubmitted(
+                userId, request.getSentenceID(), question.getLanguage(), response.getAttemptStatus());
+        sentenceRepository.onAttemptSubmitted(userId, request.getSentenceID(), question.getLanguage());
+        testBatchPrefetcher.onAttempt(userId, question.getLanguage(), request.getSentenceID());
 
         return response;
     }
 
-    private String generateTaskId(String userId, String sentenceID) {
-        // timestamp in seconds because updates to the same question by the same user
-        // should be considered duplicates if they happen in quick succession
-        var timestamp = Instant.now().getEpochSecond();
+    private Question lookUpQuestion(AttemptRequest request) throws QuestionNotFoundException {
+        if (request.getQuestionType() != QuestionType.Translation) {
+            return questionRepository.getQuestionBySentenceID(request.getSentenceID());
+        }
 
-        return String.format("AttemptQuestionUseCase|%s|%s|%s", userId, sentenceID, timestamp);
+        var question = sentenceRepository.getTranslationQuestionsByIDs(List.of(request.getSentenceID()))
+                .get(request.getSentenceID());
+        if (question == null) {
+            throw new QuestionNotFoundException("Sentence with ID %s not found.".formatted(request.getSentenceID()));
+        }
+        return question;
     }
 }
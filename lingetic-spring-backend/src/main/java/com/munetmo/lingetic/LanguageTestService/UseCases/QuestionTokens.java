@@ -0,0 +1,136 @@
+package com.munetmo.lingetic.LanguageTestService.UseCases;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.DTOs.Attempt.AttemptRequests.AttemptRequest;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.Question;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.QuestionType;
+import com.munetmo.lingetic.LanguageTestService.Entities.WordExplanation;
+import com.munetmo.lingetic.lib.tokens.SealedTokens;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Seals a question into the token sent along with it, so the attempt on it can be graded from the token instead of
+ * looking the question up again. The token holds the whole question, answers included, because grading a near
+ * miss needs the answers themselves. It only opens for the user it was issued to.
+ * <p>
+ * Without {@link SealedTokens}, no tokens are issued and every attempt looks its question up.
+ */
+public class QuestionTokens {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final @Nullable SealedTokens sealedTokens;
+    private final Duration timeToLive;
+
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    public QuestionTokens(@Nullable SealedTokens sealedTokens, Duration timeToLive) {
+        this.sealedTokens = sealedTokens;
+        this.timeToLive = timeToLive;
+    }
+
+    public @Nullable String issue(String userID, Question question) {
+        if (sealedTokens == null) {
+            return null;
+        }
+
+        var payload = new LinkedHashMap<String, Object>();
+        payload.put("id", question.getID());
+        payload.put("questionType", question.getQuestionType().name());
+        payload.put("language", question.getLanguage().name());
+        payload.put("sentenceID", question.getSentenceID());
+        payload.put("data", question.getQuestionTypeSpecificData());
+        payload.put("sourceWordExplanations", question.getSourceWordExplanations());
+
+        byte[] compressed;
+        try {
+            var bytes = new ByteArrayOutputStream();
+            try (var out = new DeflaterOutputStream(bytes)) {
+                objectMapper.writeValue(out, payload);
+            }
+            compressed = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize question %s".formatted(question.getID()), e);
+        }
+
+        issued.incrementAndGet();
+        return sealedTokens.seal(compressed, userID, Instant.now().plus(timeToLive));
+    }
+
+    /**
+     * The question sealed in the token of {@code request}, or null if the request has no token or it expired.
+     *
+     * @throws IllegalArgumentException if the token is not one issued to this user for the attempted question
+     */
+    public @Nullable Question open(String userID, AttemptRequest request) {
+        var token = request.getQuestionToken();
+        if (sealedTokens == null || token == null) {
+            return null;
+        }
+
+        var compressed = sealedTokens.open(token, userID, Instant.now());
+        if (compressed == null) {
+            expired.incrementAndGet();
+            return null;
+        }
+
+        Map<String, Object> payload;
+        try (var in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            payload = objectMapper.readValue(in, new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to deserialize question token", e);
+        }
+
+        @SuppressWarnings("unchecked")
+        var data = (Map<String, Object>) field(payload, "data", Map.class);
+        List<WordExplanation> sourceWordExplanations = objectMapper.convertValue(
+            field(payload, "sourceWordExplanations", List.class), new TypeReference<>() {});
+        var question = Question.createFromQuestionTypeSpecificData(
+            field(payload, "id", String.class),
+            Language.valueOf(field(payload, "language", String.class)),
+            field(payload, "sentenceID", String.class),
+            QuestionType.valueOf(field(payload, "questionType", String.class)),
+            sourceWordExplanations,
+            data
+        );
+
+        if (question.getQuestionType() != request.getQuestionType()
+                || !question.getSentenceID().equals(request.getSentenceID())) {
+            throw new IllegalArgumentException("Question token is for a different question");
+        }
+
+        opened.incrementAndGet();
+        return question;
+    }
+
+    public Map<String, Number> toMetrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("issued", issued.get());
+        metrics.put("opened", opened.get());
+        metrics.put("expired", expired.get());
+        return metrics;
+    }
+
+    private static <T> T field(Map<String, Object> payload, String name, Class<T> type) {
+        var value = payload.get(name);
+        if (!type.isInstance(value)) {
+            throw new IllegalStateException("Question token has no valid %s".formatted(name));
+        }
+        return type.cast(value);
+    }
+}
@@ -1,103 +1,162 @@
 package com.munetmo.lingetic.LanguageTestService.UseCases;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import com.munetmo.lingetic.LanguageTestService.Entities.Questions.TranslationQuestion;
-import com.munetmo.lingetic.LanguageTestService.Entities.Sentence;
 import com.munetmo.lingetic.LanguageTestService.Entities.SentenceReview;
+import com.munetmo.lingetic.LanguageTestService.Entities.TestCandidate;
 
 import com.munetmo.lingetic.LanguageTestService.DTOs.Question.*;
 import com.munetmo.lingetic.LanguageService.Entities.Language;
 import com.munetmo.lingetic.LanguageTestService.Entities.Questions.Question;
 import com.munetmo.lingetic.LanguageTestService.Repositories.QuestionRepository;
-import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceReviewRepository;
 import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceRepository;
-import org.jspecify.annotations.Nullable;
+import com.munetmo.lingetic.LanguageTestService.Repositories.TestAssemblyRepository;
+import com.munetmo.lingetic.lib.concurrent.TaskGroup;
 
 public class TakeRegularTestUseCase {
     public static final int limit = 10;
 
-    private final QuestionRepository questionRepository;
-    private final SentenceReviewRepository sentenceReviewRepository;
+    private final TestAssemblyRepository testAssemblyRepository;
     private final SentenceRepository sentenceRepository;
-
-    public TakeRegularTestUseCase(
-        QuestionRepository questionRepository,
-        SentenceReviewRepository sentenceReviewRepository,
-        SentenceRepository sentenceRepository
-    ) {
-        this.questionRepository = questionRepository;
-        this.sentenceReviewRepository = sentenceReviewRepository;
+    private final QuestionRepository questionRepository;
+    private final TestBatchPrefetcher testBatchPrefetcher;
+    private final ExecutorService lookupExecutor;
+    private final Duration timeout;
+    private final QuestionTokens questionTokens;
+
+    /**
+     * @param lookupExecutor runs the content lookups of a test concurrently; virtual threads suit it, since the
+     *                       lookups mostly wait
+     * @param timeout how long assembling a test may take before its outstanding lookups are cancelled
+     */
+    public TakeRegularTestUseCase(TestAssemblyRepository testAssemblyRepository, SentenceRepository sentenceRepository,
+            QuestionRepository questionRepository, TestBatchPrefetcher testBatchPrefetcher,
+            ExecutorService lookupExecutor, Duration timeout, QuestionTokens questionTokens) {
+        this.testAssemblyRepository = testAssemblyRepository;
         this.sentenceRepository = sentenceRepository;
+        this.questionRepository = questionRepository;
+        this.testBatchPrefetcher = testBatchPrefetcher;
+        this.lookupExecutor = lookupExecutor;
+        this.timeout = timeout;
+        this.questionTokens = questionTokens;
     }
 
     public List<QuestionDTO> execute(String userId, Language language) {
-        var now = Instant.now();
+        var prefetched = testBatchPrefetcher.take(userId, language);
+        var questions = prefetched != null ? prefetched : assemble(userId, language).questions();
+        testBatchPrefetcher.onTestServed(userId, language, questions, () -> assemble(userId, language));
+        return questions;
+    }
 
-        var sentenceReviews = sentenceReviewRepository.getTopSentencesToReview(userId, language, limit);
-        var sentencesToReviewNow = sentenceReviews.stream()
-            .filter(r -> r.getNextReviewInstant().isBefore(now))
-            .map(this::getQuestionForSentenceReview)
-            .toList();
+    private TestBatchPrefetcher.AssembledTest assemble(String userId, Language language) {
+        try (var lookups = new TaskGroup(lookupExecutor, timeout)) {
+            return assemble(userId, language, lookups);
+        }
+    }
+
+    private TestBatchPrefetcher.AssembledTest assemble(String userId, Language language, TaskGroup lookups) {
+        var now = Instant.now();
 
-        var questionList = new ArrayList<>(sentencesToReviewNow);
+        // The candidates come back in a single query; their sentences and questions are then looked up in bulk,
+        // mostly from the repositories' caches, side by side, and the test is put together in memory
+        var candidates = testAssemblyRepository.assembleTest(userId, language, limit, now);
+
+        var sentenceIDs = new ArrayList<String>(candidates.size());
+        var questionSentenceIDs = new ArrayList<String>(candidates.size());
+        var translationSentenceIDs = new ArrayList<String>();
+        for (var candidate : candidates) {
+            sentenceIDs.add(candidate.sentenceID());
+
+            var review = candidate.review();
+            if (review == null || !isAskedAsTranslation(review)) {
+                questionSentenceIDs.add(candidate.sentenceID());
+            } else {
+                translationSentenceIDs.add(candidate.sentenceID());
+            }
+        }
+        var sentenceLookup = lookups.fork(() -> sentenceRepository.getSentencesByIDs(sentenceIDs));
+        var questionLookup = lookups.fork(() -> questionRepository.getQuestionsBySentenceIDs(questionSentenceIDs));
+        var translationLookup = lookups.fork(() -> sentenceRepository.getTranslationQuestionsByIDs(translationSentenceIDs));
+        lookups.join();
+        var sentences = sentenceLookup.get();
+        var questions = questionLookup.get();
+        var translationQuestions = translationLookup.get();
+
+        var questionList = new ArrayList<Question>(limit);
+        var unreviewedQuestions = new ArrayList<Question>();
+        var candidatesToReviewLater = new ArrayList<TestCandidate>();
+        for (var candidate : candidates) {
+            // Sentences deleted since the candidates were picked are left out
+            var sentence = sentences.get(candidate.sentenceID());
+            if (sentence == null) {
+                continue;
+            }
+
+            var review = candidate.review();
+            if (review == null) {
+                var sentenceQuestions = questions.get(candidate.sentenceID());
+                if (sentenceQuestions != null && !sentenceQuestions.isEmpty()) {
+                    unreviewedQuestions.add(sentenceQuestions.getFirst());
+                }
+            } else if (review.getNextReviewInstant().isBefore(now)) {
+                questionList.add(getQuestionForSentenceReview(review, questions, translationQuestions));
+            } else {
+                candidatesToReviewLater.add(candidate);
+            }
+        }
 
         int remainingCount = limit - questionList.size();
+        questionList.addAll(unreviewedQuestions.subList(0, Math.min(remainingCount, unreviewedQuestions.size())));
 
-        var unreviewedSentences = sentenceRepository.getUnreviewedSentences(userId, language, remainingCount);
-        var unreviewedQuestions = unreviewedSentences.stream()
-            .map(this::getQuestionForSentence)
-            .filter(Objects::nonNull)
-            .limit(remainingCount)
-            .toList();
+        int stillRemainingCount = limit - questionList.size();
+        for (var candidate : candidatesToReviewLater.subList(0, Math.min(stillRemainingCount, candidatesToReviewLater.size()))) {
+            var sentence = sentences.get(candidate.sentenceID());
+            var review = candidate.review();
+            if (sentence != null && review != null) {
+                questionList.add(getQuestionForSentenceReview(review, questions, translationQuestions));
+            }
+        }
 
-        questionList.addAll(unreviewedQuestions);
+        var reviewInstants = new HashMap<String, Instant>();
+        for (var candidate : candidates) {
+            var review = candidate.review();
+            if (review != null) {
+                reviewInstants.put(candidate.sentenceID(), review.getLastReviewInstant());
+            }
+        }
 
-        int stillRemainingCount = limit - questionList.size();
-        var sentencesToReviewLater = sentenceReviews.stream()
-            .filter(r -> !r.getNextReviewInstant().isBefore(now))
-            .map(this::getQuestionForSentenceReview)
-            .limit(stillRemainingCount)
+        var questionDTOs = questionList.stream()
+            .map(question -> QuestionDTO.fromQuestion(question, questionTokens.issue(userId, question)))
             .toList();
-        questionList.addAll(sentencesToReviewLater);
+        return new TestBatchPrefetcher.AssembledTest(questionDTOs, reviewInstants);
+    }
 
-        return questionList.stream()
-            .map(QuestionDTO::fromQuestion)
-            .toList();
+    private static boolean isAskedAsTranslation(SentenceReview r) {
+        return r.getRepetitions() >= 2;
     }
 
-    private Question getQuestionForSentenceReview(SentenceReview r) {
-        var sentence = sentenceRepository.getSentenceByID(r.sentenceID);
-        if (r.getRepetitions() >= 2)
+    private Question getQuestionForSentenceReview(SentenceReview r, Map<String, List<Question>> questions,
+            Map<String, TranslationQuestion> translationQuestions) {
+        if (isAskedAsTranslation(r))
         {
-            return new TranslationQuestion(
-                UUID.randomUUID().toString(),
-                sentence.translationLanguage(),
-                sentence.sourceLanguage(),
-                sentence.translationText(),
-                sentence.sourceText(),
-                sentence.id().toString(),
-                sentence.sourceWordExplanations()
-            );
+            var translationQuestion = translationQuestions.get(r.sentenceID);
+            if (translationQuestion == null) {
+                throw new IllegalStateException("No translation question found for sentence review: " + r.id);
+            }
+            return translationQuestion;
         }
 
-        var question = getQuestionForSentence(sentence);
-        if (question == null) {
+        var sentenceQuestions = questions.get(r.sentenceID);
+        if (sentenceQuestions == null || sentenceQuestions.isEmpty()) {
             throw new IllegalStateException("No question found for sentence review: " + r.id);
         }
-        return question;
-    }
-
-    @Nullable
-    private Question getQuestionForSentence(Sentence sentence) {
-        var questions = questionRepository.getQuestionsBySentenceID(sentence.id().toString());
-        if (questions.isEmpty()) {
-            return null;
-        }
-        return questions.getFirst();
+        return sentenceQuestions.getFirst();
     }
 }
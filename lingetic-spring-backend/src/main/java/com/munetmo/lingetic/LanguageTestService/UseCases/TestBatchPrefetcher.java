@@ -0,0 +1,238 @@
+package com.munetmo.lingetic.LanguageTestService.UseCases;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.DTOs.Question.QuestionDTO;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Assembles a user's next test in the background once they have attempted every question of the current one, so
+ * the next request for questions can be answered straight away.
+ * <p>
+ * There is one slot per user and language, and the least recently used slots are dropped beyond the configured
+ * number. A prefetched test is only served if no attempt in that language was made after it started assembling,
+ * since an attempt changes the review the test was picked from, and if it is younger than the configured maximum
+ * age, since reviews become due as time passes. Assembly starts after a short delay, which gives the review worker
+ * time to store the last attempts. The worker may still lag behind, so a prefetched test is discarded as well if it
+ * was assembled from a review of a sentence attempted in the current test that predates the attempt. A review that
+ * includes the attempt is fine, so a sentence made due again by a failed attempt can be asked again straight away.
+ */
+public class TestBatchPrefetcher {
+    /**
+     * A test and what its assembly knew of the reviews of its sentences.
+     *
+     * @param reviewInstants when each sentence of the test was last reviewed; sentences never reviewed are left out
+     */
+    public record AssembledTest(List<QuestionDTO> questions, Map<String, Instant> reviewInstants) {
+    }
+
+    private record SlotKey(String userID, Language language) {
+    }
+
+    private static final class Slot {
+        final Set<String> unattemptedSentenceIDs;
+        final Map<String, Instant> attemptInstants = new HashMap<>();
+        final Supplier<AssembledTest> assembler;
+        // Incremented by every attempt, so a prefetch can tell whether one was made while it ran
+        long attempts;
+        @Nullable ScheduledFuture<AssembledTest> prefetch;
+        long prefetchAttempts;
+        long prefetchStartNanos;
+
+        Slot(Set<String> unattemptedSentenceIDs, Supplier<AssembledTest> assembler) {
+            this.unattemptedSentenceIDs = unattemptedSentenceIDs;
+            this.assembler = assembler;
+        }
+
+        void cancel() {
+            var prefetch = this.prefetch;
+            if (prefetch != null) {
+                // Not interrupted, since that would break the database connection an assembly is reading from
+                prefetch.cancel(false);
+                this.prefetch = null;
+            }
+        }
+    }
+
+    private final ScheduledExecutorService executor;
+    private final int maxSlots;
+    private final long maxAgeNanos;
+    private final Duration delay;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<SlotKey, Slot> slots;
+
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    /**
+     * @param maxSlots the number of users and languages to keep a slot for; 0 turns prefetching off
+     */
+    public TestBatchPrefetcher(ScheduledExecutorService executor, int maxSlots, Duration maxAge, Duration delay) {
+        if (maxSlots < 0) {
+            throw new IllegalArgumentException("maxSlots must not be negative");
+        }
+
+        this.executor = executor;
+        this.maxSlots = maxSlots;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.delay = delay;
+        this.slots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SlotKey, Slot> eldest) {
+                if (size() <= TestBatchPrefetcher.this.maxSlots) {
+                    return false;
+                }
+                eldest.getValue().cancel();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Records the test just served to a user, replacing any earlier one. {@code assembler} assembles the test that
+     * will follow it.
+     */
+    public void onTestServed(String userID, Language language, List<QuestionDTO> questions,
+            Supplier<AssembledTest> assembler) {
+        if (maxSlots == 0 || questions.isEmpty()) {
+            return;
+        }
+
+        var sentenceIDs = new HashSet<String>();
+        for (var question : questions) {
+            sentenceIDs.add(question.getSentenceID());
+        }
+
+        lock.lock();
+        try {
+            var previous = slots.put(new SlotKey(userID, language), new Slot(sentenceIDs, assembler));
+            if (previous != null) {
+                previous.cancel();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onAttempt(String userID, Language language, String sentenceID) {
+        if (maxSlots == 0) {
+            return;
+        }
+
+        var now = Instant.now();
+        lock.lock();
+        try {
+            var slot = slots.get(new SlotKey(userID, language));
+            if (slot == null) {
+                return;
+            }
+
+            slot.attempts++;
+            slot.unattemptedSentenceIDs.remove(sentenceID);
+            slot.attemptInstants.put(sentenceID, now);
+            if (slot.prefetch == null && slot.unattemptedSentenceIDs.isEmpty()) {
+                startPrefetch(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the user's prefetched test if it is ready and still valid, or returns null.
+     */
+    public @Nullable List<QuestionDTO> take(String userID, Language language) {
+        if (maxSlots == 0) {
+            return null;
+        }
+
+        ScheduledFuture<AssembledTest> prefetch;
+        Map<String, Instant> attemptInstants;
+        lock.lock();
+        try {
+            var slot = slots.get(new SlotKey(userID, language));
+            if (slot == null || slot.prefetch == null) {
+                return null;
+            }
+
+            prefetch = slot.prefetch;
+            slot.prefetch = null;
+            attemptInstants = Map.copyOf(slot.attemptInstants);
+            boolean valid = prefetch.isDone()
+                && !prefetch.isCancelled()
+                && slot.prefetchAttempts == slot.attempts
+                && System.nanoTime() - slot.prefetchStartNanos <= maxAgeNanos;
+            if (!valid) {
+                prefetch.cancel(false);
+                discarded.incrementAndGet();
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            var test = prefetch.get();
+            if (test.questions().stream().anyMatch(question -> isStale(test, question, attemptInstants))) {
+                discarded.incrementAndGet();
+                return null;
+            }
+            served.incrementAndGet();
+            return test.questions();
+        } catch (ExecutionException e) {
+            discarded.incrementAndGet();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    public Map<String, Number> toMetrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        lock.lock();
+        try {
+            metrics.put("slots", slots.size());
+        } finally {
+            lock.unlock();
+        }
+        metrics.put("started", started.get());
+        metrics.put("served", served.get());
+        metrics.put("discarded", discarded.get());
+        return metrics;
+    }
+
+    // Whether the question was picked from a review the review worker hadn't yet updated with the attempt
+    private static boolean isStale(AssembledTest test, QuestionDTO question, Map<String, Instant> attemptInstants) {
+        var attemptInstant = attemptInstants.get(question.getSentenceID());
+        if (attemptInstant == null) {
+            return false;
+        }
+
+        var reviewInstant = test.reviewInstants().get(question.getSentenceID());
+        return reviewInstant == null || reviewInstant.isBefore(attemptInstant);
+    }
+
+    private void startPrefetch(Slot slot) {
+        slot.prefetchAttempts = slot.attempts;
+        slot.prefetchStartNanos = System.nanoTime();
+        slot.prefetch = executor.schedule(slot.assembler::get, delay.toMillis(), TimeUnit.MILLISECONDS);
+        started.incrementAndGet();
+    }
+}
@@ -1,51 +1,215 @@
 package com.munetmo.lingetic.LanguageTestService.infra;
 
+import com.munetmo.lingetic.LanguageTestService.DTOs.TaskPayloads.SentenceReviewProcessingPayload;
+import com.munetmo.lingetic.LanguageTestService.DTOs.TaskPayloads.SentenceReviewProcessingPayloadSchema;
 import com.munetmo.lingetic.LanguageTestService.Repositories.*;
 import com.munetmo.lingetic.LanguageTestService.UseCases.AttemptQuestionUseCase;
+import com.munetmo.lingetic.LanguageTestService.UseCases.QuestionTokens;
 import com.munetmo.lingetic.LanguageTestService.UseCases.TakeRegularTestUseCase;
+import com.munetmo.lingetic.LanguageTestService.UseCases.TestBatchPrefetcher;
+import com.munetmo.lingetic.LanguageTestService.infra.Repositories.Caching.CachingQuestionRepository;
+import com.munetmo.lingetic.LanguageTestService.infra.Repositories.Caching.CachingSentenceRepository;
+import com.munetmo.lingetic.LanguageTestService.infra.Repositories.InMemory.InMemorySentenceReviewRepository;
+import com.munetmo.lingetic.LanguageTestService.infra.Repositories.InMemory.InMemoryTestAssemblyRepository;
 import com.munetmo.lingetic.LanguageTestService.infra.Repositories.Postgres.*;
+import com.munetmo.lingetic.lib.cache.WTinyLfuCache;
+import com.munetmo.lingetic.lib.metrics.MetricsRegistry;
+import com.munetmo.lingetic.lib.tasks.CompactTaskCodec;
 import com.munetmo.lingetic.lib.tasks.TaskQueue;
+import com.munetmo.lingetic.lib.tokens.SealedTokens;
 
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 @Configuration
 public class Beans {
+    // Used to size the caches' frequency sketches from a byte budget
+    private static final long ESTIMATED_CONTENT_ENTRY_BYTES = 2048;
+    private static final int TEST_PREFETCH_THREADS = 2;
+
+    // Also runs the use cases' background work on virtual threads, like Spring does for requests
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${app.content-cache.max-bytes}")
+    private long contentCacheMaxBytes;
+
+    // Overrides the byte budget with an entry count when positive
+    @Value("${app.content-cache.max-entries}")
+    private long contentCacheMaxEntries;
+
+    // Serves content from memory; see ContentSnapshotBeans
+    @Value("${app.content-snapshot.enabled}")
+    private boolean contentSnapshotEnabled;
+
+    // Only takes effect in snapshot mode, since the reviewed sets are bitmaps over the snapshot's sentences
+    @Value("${app.reviewed-sets.enabled}")
+    private boolean reviewedSetsEnabled;
+
+    // Keeps users' reviews in memory; only accurate when a single instance serves all attempts
+    @Value("${app.review-queues.enabled}")
+    private boolean reviewQueuesEnabled;
+
+    @Value("${app.review-queues.idle-minutes}")
+    private long reviewQueuesIdleMinutes;
+
+    // The number of users and languages to prefetch tests for; 0 turns prefetching off
+    @Value("${app.test-prefetch.max-slots}")
+    private int testPrefetchMaxSlots;
+
+    @Value("${app.test-prefetch.max-age-seconds}")
+    private long testPrefetchMaxAgeSeconds;
+
+    @Value("${app.test-prefetch.delay-millis}")
+    private long testPrefetchDelayMillis;
+
+    @Value("${app.test-assembly.timeout-millis}")
+    private long testAssemblyTimeoutMillis;
+
+    // Turns question tokens off when blank; instances serving the same users must share it
+    @Value("${app.question-tokens.secret}")
+    @Nullable
+    private String questionTokensSecret;
+
+    @Value("${app.question-tokens.ttl-minutes}")
+    private long questionTokensTtlMinutes;
+
+    // Checks for sentences imported below users' frontiers this often; 0 only repairs on sentences added through the app
+    @Value("${app.sentence-frontiers.repair-minutes}")
+    private long sentenceFrontiersRepairMinutes;
+
+    @Bean
+    public TakeRegularTestUseCase takeRegularTestUseCase(TestAssemblyRepository testAssemblyRepository,
+            SentenceRepository sentenceRepository, QuestionRepository questionRepository,
+            TestBatchPrefetcher testBatchPrefetcher, ExecutorService testLookupExecutor, QuestionTokens questionTokens) {
+        return new TakeRegularTestUseCase(testAssemblyRepository, sentenceRepository, questionRepository, testBatchPrefetcher,
+                testLookupExecutor, Duration.ofMillis(testAssemblyTimeoutMillis), questionTokens);
+    }
+
+    @Bean
+    public QuestionTokens questionTokens(MetricsRegistry metricsRegistry) {
+        SealedTokens sealedTokens = null;
+        if (questionTokensSecret != null && !questionTokensSecret.isBlank()) {
+            sealedTokens = new SealedTokens(questionTokensSecret);
+        }
+        var questionTokens = new QuestionTokens(sealedTokens, Duration.ofMinutes(questionTokensTtlMinutes));
+        metricsRegistry.register("questionTokens", questionTokens::toMetrics);
+        return questionTokens;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService testLookupExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
     @Bean
-    public TakeRegularTestUseCase takeRegularTestUseCase(
-            QuestionRepository questionRepository, 
-            SentenceReviewRepository sentenceReviewRepository,
-            SentenceRepository sentenceRepository) {
-        return new TakeRegularTestUseCase(questionRepository, sentenceReviewRepository, sentenceRepository);
+    public TestBatchPrefetcher testBatchPrefetcher(ScheduledExecutorService testPrefetchExecutor, MetricsRegistry metricsRegistry) {
+        var prefetcher = new TestBatchPrefetcher(testPrefetchExecutor, testPrefetchMaxSlots,
+                Duration.ofSeconds(testPrefetchMaxAgeSeconds), Duration.ofMillis(testPrefetchDelayMillis));
+        metricsRegistry.register("testPrefetch", prefetcher::toMetrics);
+        return prefetcher;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService testPrefetchExecutor() {
+        return Executors.newScheduledThreadPool(TEST_PREFETCH_THREADS, threadFactory());
+    }
+
+    // Frontiers are only read by the Postgres test assembly, which either in-memory mode replaces
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(name = {"app.content-snapshot.enabled", "app.review-queues.enabled"}, havingValue = "false",
+            matchIfMissing = true)
+    public ScheduledExecutorService sentenceFrontierRepairExecutor(JdbcTemplate jdbcTemplate, MetricsRegistry metricsRegistry) {
+        var repair = new SentenceFrontierRepair(jdbcTemplate);
+        metricsRegistry.register("sentenceFrontierRepair", repair::toMetrics);
+
+        var executor = Executors.newSingleThreadScheduledExecutor();
+        if (sentenceFrontiersRepairMinutes > 0) {
+            // The first run checks every language, so it waits a period rather than adding to the load of a boot
+            executor.scheduleWithFixedDelay(repair::repair, sentenceFrontiersRepairMinutes, sentenceFrontiersRepairMinutes,
+                    TimeUnit.MINUTES);
+        }
+        return executor;
     }
 
     @Bean
-    public QuestionRepository questionRepository(JdbcTemplate jdbcTemplate) {
-        return new QuestionPostgresRepository(jdbcTemplate);
+    @ConditionalOnProperty(name = "app.content-snapshot.enabled", havingValue = "false", matchIfMissing = true)
+    public QuestionRepository questionRepository(JdbcTemplate jdbcTemplate, MetricsRegistry metricsRegistry) {
+        var repository = new CachingQuestionRepository(
+                new QuestionPostgresRepository(jdbcTemplate), contentCache(CachingQuestionRepository::weigh));
+        metricsRegistry.register("questionCache", () -> repository.stats().toMetrics());
+        return repository;
     }
 
     @Bean
     public AttemptQuestionUseCase attemptQuestionUseCase(
-            SentenceRepository sentenceRepository, QuestionRepository questionRepository, TaskQueue taskQueue, ExecutorService taskSubmitExecutor) {
-        return new AttemptQuestionUseCase(sentenceRepository, questionRepository, taskQueue, taskSubmitExecutor);
+            SentenceRepository sentenceRepository, QuestionRepository questionRepository,
+            SentenceReviewRepository sentenceReviewRepository, TaskQueue taskQueue,
+            TestBatchPrefetcher testBatchPrefetcher, QuestionTokens questionTokens) {
+        return new AttemptQuestionUseCase(sentenceRepository, questionRepository, sentenceReviewRepository, taskQueue,
+                testBatchPrefetcher, questionTokens);
     }
 
-    @Bean(destroyMethod = "shutdown")
-    public ExecutorService taskSubmitExecutor() {
-        return Executors.newCachedThreadPool();
+    @Bean
+    public CompactTaskCodec.PayloadSchema<SentenceReviewProcessingPayload> sentenceReviewProcessingPayloadSchema() {
+        return new SentenceReviewProcessingPayloadSchema();
     }
 
     @Bean
-    public SentenceRepository sentenceRepository(JdbcTemplate jdbcTemplate) {
-        return new SentencePostgresRepository(jdbcTemplate);
+    @ConditionalOnProperty(name = "app.content-snapshot.enabled", havingValue = "false", matchIfMissing = true)
+    public SentenceRepository sentenceRepository(JdbcTemplate jdbcTemplate, MetricsRegistry metricsRegistry) {
+        if (reviewedSetsEnabled) {
+            throw new IllegalStateException("app.reviewed-sets.enabled needs app.content-snapshot.enabled");
+        }
+
+        var repository = new CachingSentenceRepository(new SentencePostgresRepository(jdbcTemplate),
+                contentCache(CachingSentenceRepository::weigh), contentCache(CachingSentenceRepository::weighTranslationQuestion));
+        metricsRegistry.register("sentenceCache", () -> repository.stats().toMetrics());
+        metricsRegistry.register("translationQuestionCache", () -> repository.translationQuestionStats().toMetrics());
+        return repository;
+    }
+
+    @Bean
+    public SentenceReviewRepository sentenceReviewRepository(JdbcTemplate jdbcTemplate, MetricsRegistry metricsRegistry) {
+        var repository = new SentenceReviewPostgresRepository(jdbcTemplate);
+        if (!reviewQueuesEnabled) {
+            return repository;
+        }
+
+        var inMemoryRepository = new InMemorySentenceReviewRepository(repository, Duration.ofMinutes(reviewQueuesIdleMinutes));
+        metricsRegistry.register("reviewQueues", inMemoryRepository::toMetrics);
+        return inMemoryRepository;
     }
 
     @Bean
-    public SentenceReviewRepository sentenceReviewRepository(JdbcTemplate jdbcTemplate) {
-        return new SentenceReviewPostgresRepository(jdbcTemplate);
+    public TestAssemblyRepository testAssemblyRepository(JdbcTemplate jdbcTemplate,
+            SentenceReviewRepository sentenceReviewRepository, SentenceRepository sentenceRepository) {
+        // With either in memory, the assembly query would do in SQL what they answer without it
+        if (reviewQueuesEnabled || contentSnapshotEnabled) {
+            return new InMemoryTestAssemblyRepository(sentenceReviewRepository, sentenceRepository);
+        }
+        return new TestAssemblyPostgresRepository(jdbcTemplate);
+    }
+
+    private <V> WTinyLfuCache<String, V> contentCache(WTinyLfuCache.Weigher<String, V> weigher) {
+        if (contentCacheMaxEntries > 0) {
+            return WTinyLfuCache.ofMaximumSize(contentCacheMaxEntries);
+        }
+        return new WTinyLfuCache<>(contentCacheMaxBytes, contentCacheMaxBytes / ESTIMATED_CONTENT_ENTRY_BYTES, weigher);
+    }
+
+    private ThreadFactory threadFactory() {
+        return virtualThreadsEnabled ? Thread.ofVirtual().factory() : Executors.defaultThreadFactory();
     }
 }
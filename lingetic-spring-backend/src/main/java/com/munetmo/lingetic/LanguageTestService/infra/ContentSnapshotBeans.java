@@ -0,0 +1,77 @@
+package com.munetmo.lingetic.LanguageTestService.infra;
+
+import com.munetmo.lingetic.LanguageTestService.Repositories.QuestionRepository;
+import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceRepository;
+import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceReviewRepository;
+import com.munetmo.lingetic.LanguageTestService.infra.Repositories.Postgres.QuestionPostgresRepository;
+import com.munetmo.lingetic.LanguageTestService.infra.Repositories.Postgres.SentencePostgresRepository;
+import com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot.ContentSnapshotStore;
+import com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot.ReviewedSentenceIndex;
+import com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot.SnapshotQuestionRepository;
+import com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot.SnapshotSentenceRepository;
+import com.munetmo.lingetic.lib.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Snapshot mode: all sentences and questions are loaded into memory at startup and served from there, instead
+ * of through the caches in {@link Beans}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.content-snapshot.enabled", havingValue = "true")
+public class ContentSnapshotBeans {
+    // Reloads the snapshot this often to pick up imported content; 0 reloads only on writes through the app
+    @Value("${app.content-snapshot.refresh-minutes}")
+    private long refreshMinutes;
+
+    // Keeps users' reviewed sentences in memory; only accurate when a single instance serves all attempts
+    @Value("${app.reviewed-sets.enabled}")
+    private boolean reviewedSetsEnabled;
+
+    @Value("${app.reviewed-sets.idle-minutes}")
+    private long reviewedSetsIdleMinutes;
+
+    @Bean
+    public ContentSnapshotStore contentSnapshotStore(JdbcTemplate jdbcTemplate, MetricsRegistry metricsRegistry) {
+        var store = new ContentSnapshotStore(jdbcTemplate);
+        metricsRegistry.register("contentSnapshot", store::toMetrics);
+        return store;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService contentSnapshotRefreshExecutor(ContentSnapshotStore contentSnapshotStore) {
+        var executor = Executors.newSingleThreadScheduledExecutor();
+        if (refreshMinutes > 0) {
+            executor.scheduleWithFixedDelay(contentSnapshotStore::refresh, refreshMinutes, refreshMinutes, TimeUnit.MINUTES);
+        }
+        return executor;
+    }
+
+    @Bean
+    public SentenceRepository snapshotSentenceRepository(JdbcTemplate jdbcTemplate,
+            SentenceReviewRepository sentenceReviewRepository, ContentSnapshotStore contentSnapshotStore,
+            MetricsRegistry metricsRegistry) {
+        ReviewedSentenceIndex reviewedSentenceIndex = null;
+        if (reviewedSetsEnabled) {
+            reviewedSentenceIndex = new ReviewedSentenceIndex(sentenceReviewRepository, Duration.ofMinutes(reviewedSetsIdleMinutes));
+            metricsRegistry.register("reviewedSets", reviewedSentenceIndex::toMetrics);
+        }
+
+        return new SnapshotSentenceRepository(new SentencePostgresRepository(jdbcTemplate), sentenceReviewRepository,
+                contentSnapshotStore, reviewedSentenceIndex);
+    }
+
+    @Bean
+    public QuestionRepository snapshotQuestionRepository(JdbcTemplate jdbcTemplate, ContentSnapshotStore contentSnapshotStore) {
+        return new SnapshotQuestionRepository(new QuestionPostgresRepository(jdbcTemplate), contentSnapshotStore);
+    }
+}
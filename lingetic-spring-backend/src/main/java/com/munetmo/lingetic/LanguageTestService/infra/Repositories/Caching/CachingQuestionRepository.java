@@ -0,0 +1,108 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Caching;
+
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.Question;
+import com.munetmo.lingetic.LanguageTestService.Exceptions.QuestionNotFoundException;
+import com.munetmo.lingetic.LanguageTestService.Exceptions.QuestionWithIDAlreadyExistsException;
+import com.munetmo.lingetic.LanguageTestService.Repositories.QuestionRepository;
+import com.munetmo.lingetic.lib.cache.CacheStats;
+import com.munetmo.lingetic.lib.cache.WTinyLfuCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SequencedMap;
+import java.util.UUID;
+
+/**
+ * Keeps the questions of recently read sentences in memory. Questions never change once added, so the cache is
+ * only cleared when questions are added or deleted through this repository. Sentences without questions aren't
+ * cached, so questions added to them by other processes still show up.
+ */
+public class CachingQuestionRepository implements QuestionRepository {
+    private final QuestionRepository questionRepository;
+    private final WTinyLfuCache<String, List<Question>> cache;
+
+    public CachingQuestionRepository(QuestionRepository questionRepository, WTinyLfuCache<String, List<Question>> cache) {
+        this.questionRepository = questionRepository;
+        this.cache = cache;
+    }
+
+    public static long weigh(String sentenceID, List<Question> questions) {
+        return ContentWeights.of(questions);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void addQuestion(Question question) throws QuestionWithIDAlreadyExistsException {
+        questionRepository.addQuestion(question);
+        cache.invalidateAll();
+    }
+
+    @Override
+    public Question getQuestionByID(String id) throws QuestionNotFoundException {
+        return questionRepository.getQuestionByID(id);
+    }
+
+    @Override
+    public Question getQuestionBySentenceID(String sentenceID) throws QuestionNotFoundException {
+        var questions = getQuestionsBySentenceID(sentenceID);
+        if (questions.isEmpty()) {
+            throw new QuestionNotFoundException("Question not found for sentence: " + sentenceID);
+        }
+        return questions.getFirst();
+    }
+
+    @Override
+    public List<Question> getQuestionsBySentenceID(String sentenceID) {
+        var questions = cache.get(canonicalID(sentenceID), id -> {
+            var loaded = questionRepository.getQuestionsBySentenceID(id);
+            return loaded.isEmpty() ? null : List.copyOf(loaded);
+        });
+        return questions == null ? List.of() : questions;
+    }
+
+    @Override
+    public SequencedMap<String, List<Question>> getQuestionsBySentenceIDs(Collection<String> sentenceIDs) {
+        var canonicalIDs = new ArrayList<String>(sentenceIDs.size());
+        for (var sentenceID : sentenceIDs) {
+            canonicalIDs.add(canonicalID(sentenceID));
+        }
+
+        var questionsBySentenceID = cache.getAll(canonicalIDs, missingIDs -> {
+            var loaded = new LinkedHashMap<String, List<Question>>();
+            questionRepository.getQuestionsBySentenceIDs(missingIDs).forEach((id, questions) -> {
+                if (!questions.isEmpty()) {
+                    loaded.put(id, List.copyOf(questions));
+                }
+            });
+            return loaded;
+        });
+
+        var result = new LinkedHashMap<String, List<Question>>();
+        int i = 0;
+        for (var sentenceID : sentenceIDs) {
+            var questions = questionsBySentenceID.get(canonicalIDs.get(i++));
+            result.put(sentenceID, questions == null ? List.of() : questions);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Question> getAllQuestions() {
+        return questionRepository.getAllQuestions();
+    }
+
+    @Override
+    public void deleteAllQuestions() {
+        questionRepository.deleteAllQuestions();
+        cache.invalidateAll();
+    }
+
+    private static String canonicalID(String sentenceID) {
+        return UUID.fromString(sentenceID).toString();
+    }
+}
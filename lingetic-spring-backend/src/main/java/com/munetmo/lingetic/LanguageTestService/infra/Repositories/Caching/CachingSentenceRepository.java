@@ -0,0 +1,126 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Caching;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.TranslationQuestion;
+import com.munetmo.lingetic.LanguageTestService.Entities.Sentence;
+import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceRepository;
+import com.munetmo.lingetic.lib.cache.CacheStats;
+import com.munetmo.lingetic.lib.cache.WTinyLfuCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.SequencedMap;
+import java.util.UUID;
+
+/**
+ * Keeps recently read sentences in memory. Sentences never change once added, so the cache is only cleared when
+ * sentences are added or deleted through this repository. The translation questions of sentences are cached
+ * separately, since only sentences with enough repetitions are asked as one. Reviews change per user, so
+ * {@link #getUnreviewedSentences} always goes to the underlying repository.
+ */
+public class CachingSentenceRepository implements SentenceRepository {
+    private final SentenceRepository sentenceRepository;
+    private final WTinyLfuCache<String, Sentence> cache;
+    private final WTinyLfuCache<String, TranslationQuestion> translationQuestionCache;
+
+    public CachingSentenceRepository(SentenceRepository sentenceRepository, WTinyLfuCache<String, Sentence> cache,
+            WTinyLfuCache<String, TranslationQuestion> translationQuestionCache) {
+        this.sentenceRepository = sentenceRepository;
+        this.cache = cache;
+        this.translationQuestionCache = translationQuestionCache;
+    }
+
+    public static long weigh(String id, Sentence sentence) {
+        return ContentWeights.of(sentence);
+    }
+
+    public static long weighTranslationQuestion(String id, TranslationQuestion question) {
+        return ContentWeights.of(question);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public CacheStats translationQuestionStats() {
+        return translationQuestionCache.stats();
+    }
+
+    @Override
+    public void deleteAllSentences() {
+        sentenceRepository.deleteAllSentences();
+        cache.invalidateAll();
+        translationQuestionCache.invalidateAll();
+    }
+
+    @Override
+    public void addSentence(Sentence sentence) {
+        sentenceRepository.addSentence(sentence);
+        cache.invalidateAll();
+        translationQuestionCache.invalidateAll();
+    }
+
+    @Override
+    public Sentence getSentenceByID(String id) {
+        // The loader throws rather than returning null, so there is always a sentence
+        return Objects.requireNonNull(cache.get(canonicalID(id), sentenceRepository::getSentenceByID));
+    }
+
+    @Override
+    public SequencedMap<String, Sentence> getSentencesByIDs(Collection<String> ids) {
+        var canonicalIDs = new ArrayList<String>(ids.size());
+        for (var id : ids) {
+            canonicalIDs.add(canonicalID(id));
+        }
+
+        var sentences = cache.getAll(canonicalIDs, sentenceRepository::getSentencesByIDs);
+
+        var result = new LinkedHashMap<String, Sentence>();
+        int i = 0;
+        for (var id : ids) {
+            var sentence = sentences.get(canonicalIDs.get(i++));
+            if (sentence != null) {
+                result.put(id, sentence);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public SequencedMap<String, TranslationQuestion> getTranslationQuestionsByIDs(Collection<String> ids) {
+        var canonicalIDs = new ArrayList<String>(ids.size());
+        for (var id : ids) {
+            canonicalIDs.add(canonicalID(id));
+        }
+
+        // Built from the cached sentences, so a miss here doesn't have to go to the underlying repository
+        var questions = translationQuestionCache.getAll(canonicalIDs, SentenceRepository.super::getTranslationQuestionsByIDs);
+
+        var result = new LinkedHashMap<String, TranslationQuestion>();
+        int i = 0;
+        for (var id : ids) {
+            var question = questions.get(canonicalIDs.get(i++));
+            if (question != null) {
+                result.put(id, question);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Sentence> getUnreviewedSentences(String userID, Language language, int limit) {
+        return sentenceRepository.getUnreviewedSentences(userID, language, limit);
+    }
+
+    @Override
+    public void onAttemptSubmitted(String userID, String sentenceID, Language language) {
+        sentenceRepository.onAttemptSubmitted(userID, sentenceID, language);
+    }
+
+    private static String canonicalID(String id) {
+        return UUID.fromString(id).toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Caching;
+
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.FillInTheBlanksQuestion;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.Question;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.TranslationQuestion;
+import com.munetmo.lingetic.LanguageTestService.Entities.Sentence;
+import com.munetmo.lingetic.LanguageTestService.Entities.WordExplanation;
+
+import java.util.List;
+
+/**
+ * Rough heap sizes, in bytes, of cached content: two bytes per character plus a fixed overhead per object. They
+ * only need to be proportional to the real sizes for a byte budget to bound the cache.
+ */
+final class ContentWeights {
+    private static final long OBJECT_OVERHEAD = 48;
+
+    private ContentWeights() {
+    }
+
+    static long of(Sentence sentence) {
+        return OBJECT_OVERHEAD
+                + of(sentence.id().toString())
+                + of(sentence.sourceText())
+                + of(sentence.translationText())
+                + ofExplanations(sentence.sourceWordExplanations())
+                + ofStrings(sentence.acceptedSourceTexts());
+    }
+
+    static long of(List<Question> questions) {
+        long weight = OBJECT_OVERHEAD;
+        for (var question : questions) {
+            weight += of(question);
+        }
+        return weight;
+    }
+
+    static long of(Question question) {
+        // Accepted answers are also held canonicalized for grading, roughly doubling their size
+        long answers = switch (question) {
+            case TranslationQuestion translation -> of(translation.toTranslateText)
+                    + 2 * (of(translation.translatedText) + ofStrings(translation.acceptedTranslations));
+            case FillInTheBlanksQuestion fillInTheBlanks -> of(fillInTheBlanks.questionText)
+                    + of(fillInTheBlanks.hint)
+                    + 2 * (of(fillInTheBlanks.answer) + ofStrings(fillInTheBlanks.acceptedAnswers));
+        };
+
+        return OBJECT_OVERHEAD
+                + of(question.getID())
+                + of(question.getSentenceID())
+                + answers
+                + ofExplanations(question.getSourceWordExplanations());
+    }
+
+    private static long ofExplanations(List<WordExplanation> explanations) {
+        long weight = OBJECT_OVERHEAD;
+        for (var explanation : explanations) {
+            weight += OBJECT_OVERHEAD + of(explanation.word()) + ofStrings(explanation.properties())
+                    + of(explanation.comment());
+        }
+        return weight;
+    }
+
+    private static long ofStrings(List<String> strings) {
+        long weight = OBJECT_OVERHEAD;
+        for (var string : strings) {
+            weight += of(string);
+        }
+        return weight;
+    }
+
+    private static long of(String string) {
+        return OBJECT_OVERHEAD + 2L * string.length();
+    }
+}
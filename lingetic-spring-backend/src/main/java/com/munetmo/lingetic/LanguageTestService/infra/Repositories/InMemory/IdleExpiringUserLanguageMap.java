@@ -0,0 +1,86 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.InMemory;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-user, per-language state kept for active users only. A value is created on first use and dropped once its
+ * last access is older than the idle timeout. Values track their own last access, since only they know which of
+ * their operations count as one.
+ */
+public final class IdleExpiringUserLanguageMap<V> {
+    private record Key(String userID, Language language) {
+    }
+
+    private final long idleTimeoutNanos;
+    private final BiFunction<String, Language, V> factory;
+    private final ToLongFunction<V> lastAccessNanos;
+    private final ConcurrentHashMap<Key, V> values = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param factory         creates the value of a user and language; called at most once per key at a time, so it
+     *                        should be cheap and leave any loading to the value
+     * @param lastAccessNanos the {@link System#nanoTime} of a value's last access
+     */
+    public IdleExpiringUserLanguageMap(Duration idleTimeout, BiFunction<String, Language, V> factory,
+            ToLongFunction<V> lastAccessNanos) {
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("idleTimeout must be positive");
+        }
+
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.factory = factory;
+        this.lastAccessNanos = lastAccessNanos;
+    }
+
+    public V getOrCreate(String userID, Language language) {
+        evictIdle();
+        return values.computeIfAbsent(new Key(userID, language), key -> factory.apply(key.userID(), key.language()));
+    }
+
+    /**
+     * The value of a user and language, or null if it hasn't been created or was evicted. Doesn't create one, so
+     * updates for inactive users cost nothing.
+     */
+    public @Nullable V getIfPresent(String userID, Language language) {
+        return values.get(new Key(userID, language));
+    }
+
+    public Collection<V> values() {
+        return values.values();
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    // Sweeps at most a few times per idle timeout, on whichever request gets there first
+    private void evictIdle() {
+        long now = System.nanoTime();
+        long lastSweep = lastSweepNanos.get();
+        if (now - lastSweep < idleTimeoutNanos / 4 || !lastSweepNanos.compareAndSet(lastSweep, now)) {
+            return;
+        }
+
+        values.values().removeIf(value -> {
+            boolean idle = now - lastAccessNanos.applyAsLong(value) > idleTimeoutNanos;
+            if (idle) {
+                evictions.incrementAndGet();
+            }
+            return idle;
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.InMemory;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.AttemptStatus;
+import com.munetmo.lingetic.LanguageTestService.Entities.Sentence;
+import com.munetmo.lingetic.LanguageTestService.Entities.SentenceReview;
+import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceReviewRepository;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps each active user's reviews per language in a {@link ReviewQueue}, so picking the reviews due soonest
+ * doesn't need a query. A queue is loaded on first use and dropped after it has been idle for the configured
+ * time.
+ * <p>
+ * Reviews are updated by the review worker, which this process doesn't hear from. Instead, attempts submitted
+ * here are applied to the queues the same way the worker applies them, so this is only accurate when every
+ * attempt of a user goes through this process, as in a single-instance deployment.
+ */
+public class InMemorySentenceReviewRepository implements SentenceReviewRepository {
+    private final SentenceReviewRepository sentenceReviewRepository;
+    private final IdleExpiringUserLanguageMap<ReviewQueue> queues;
+
+    private final AtomicLong loads = new AtomicLong();
+
+    public InMemorySentenceReviewRepository(SentenceReviewRepository sentenceReviewRepository, Duration idleTimeout) {
+        this.sentenceReviewRepository = sentenceReviewRepository;
+        // Creating a queue is cheap; the queue loads itself under its own lock on first use
+        this.queues = new IdleExpiringUserLanguageMap<>(idleTimeout, (userID, language) -> new ReviewQueue(() -> {
+            loads.incrementAndGet();
+            return sentenceReviewRepository.getTopSentencesToReview(userID, language, Integer.MAX_VALUE);
+        }), ReviewQueue::lastAccessNanos);
+    }
+
+    @Override
+    public List<SentenceReview> getTopSentencesToReview(String userID, Language language, int limit) {
+        return queues.getOrCreate(userID, language).top(limit);
+    }
+
+    @Override
+    public List<SentenceReview> getAllReviews(String userID) {
+        return sentenceReviewRepository.getAllReviews(userID);
+    }
+
+    @Override
+    public List<String> getReviewedSentenceIDs(String userID, Language language) {
+        return queues.getOrCreate(userID, language).sentenceIDs();
+    }
+
+    @Override
+    public void update(SentenceReview review) {
+        sentenceReviewRepository.update(review);
+        var queue = queues.getIfPresent(review.userID, review.language);
+        if (queue != null) {
+            queue.put(review);
+        }
+    }
+
+    @Override
+    public SentenceReview getReviewForSentenceOrCreateNew(String userID, Sentence sentence) {
+        var review = sentenceReviewRepository.getReviewForSentenceOrCreateNew(userID, sentence);
+        var queue = queues.getIfPresent(userID, review.language);
+        if (queue != null) {
+            queue.put(review);
+        }
+        return review;
+    }
+
+    @Override
+    public void onAttemptSubmitted(String userID, String sentenceID, Language language, AttemptStatus status) {
+        var queue = queues.getIfPresent(userID, language);
+        if (queue != null) {
+            queue.applyAttempt(sentenceID, userID, language, status);
+        }
+    }
+
+    public Map<String, Number> toMetrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("queues", queues.size());
+        metrics.put("loads", loads.get());
+        metrics.put("evictions", queues.evictions());
+        return metrics;
+    }
+}
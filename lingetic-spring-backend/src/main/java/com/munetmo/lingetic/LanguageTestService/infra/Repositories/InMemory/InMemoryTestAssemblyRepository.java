@@ -0,0 +1,48 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.InMemory;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.TestCandidate;
+import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceRepository;
+import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceReviewRepository;
+import com.munetmo.lingetic.LanguageTestService.Repositories.TestAssemblyRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Picks test candidates from the review and sentence repositories instead of in one query, for when either keeps
+ * its data in memory. Due reviews come from the review repository, which with review queues is an
+ * {@link InMemorySentenceReviewRepository} and otherwise queries only the user's reviews. Unreviewed sentences come
+ * from the sentence repository, which in snapshot mode never queries the sentences.
+ */
+public class InMemoryTestAssemblyRepository implements TestAssemblyRepository {
+    private final SentenceReviewRepository sentenceReviewRepository;
+    private final SentenceRepository sentenceRepository;
+
+    public InMemoryTestAssemblyRepository(SentenceReviewRepository sentenceReviewRepository,
+            SentenceRepository sentenceRepository) {
+        this.sentenceReviewRepository = sentenceReviewRepository;
+        this.sentenceRepository = sentenceRepository;
+    }
+
+    @Override
+    public List<TestCandidate> assembleTest(String userID, Language language, int limit, Instant now) {
+        var reviews = sentenceReviewRepository.getTopSentencesToReview(userID, language, limit);
+        var candidates = new ArrayList<TestCandidate>(limit + reviews.size());
+        int dueCount = 0;
+        for (var review : reviews) {
+            candidates.add(new TestCandidate(review.sentenceID, review));
+            if (review.getNextReviewInstant().isBefore(now)) {
+                dueCount++;
+            }
+        }
+
+        if (dueCount < limit) {
+            for (var sentence : sentenceRepository.getUnreviewedSentences(userID, language, limit - dueCount)) {
+                candidates.add(new TestCandidate(sentence.id().toString(), null));
+            }
+        }
+        return candidates;
+    }
+}
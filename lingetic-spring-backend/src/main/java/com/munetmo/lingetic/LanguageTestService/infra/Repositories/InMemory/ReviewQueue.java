@@ -0,0 +1,212 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.InMemory;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.AttemptStatus;
+import com.munetmo.lingetic.LanguageTestService.Entities.SentenceReview;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * One user's reviews in one language, in a binary min-heap on the next review instant. A map from sentence ID to
+ * heap position lets a review be updated in place.
+ * <p>
+ * The reviews are loaded on first access. Reviews handed out are copies, so callers can't break the heap order by
+ * changing them.
+ */
+final class ReviewQueue {
+    private final Supplier<List<SentenceReview>> loader;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private SentenceReview[] heap = new SentenceReview[0];
+    private int size;
+    private final HashMap<String, Integer> positions = new HashMap<>();
+    private boolean loaded;
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    ReviewQueue(Supplier<List<SentenceReview>> loader) {
+        this.loader = loader;
+    }
+
+    long lastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    /**
+     * The {@code limit} reviews due soonest, ordered by next review instant.
+     */
+    List<SentenceReview> top(int limit) {
+        lock.lock();
+        try {
+            ensureLoaded();
+
+            // Best-first walk of the heap: a node can only be next once its parent has been taken
+            var result = new ArrayList<SentenceReview>(Math.min(limit, size));
+            var frontier = new PriorityQueue<Integer>((a, b) -> compare(heap[a], heap[b]));
+            if (size > 0) {
+                frontier.add(0);
+            }
+            while (result.size() < limit && !frontier.isEmpty()) {
+                int i = frontier.poll();
+                result.add(copyOf(heap[i]));
+                if (2 * i + 1 < size) {
+                    frontier.add(2 * i + 1);
+                }
+                if (2 * i + 2 < size) {
+                    frontier.add(2 * i + 2);
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<String> sentenceIDs() {
+        lock.lock();
+        try {
+            ensureLoaded();
+            return List.copyOf(positions.keySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds {@code review} or replaces the review of the same sentence. Does nothing before the queue is loaded,
+     * since the load will read the stored review.
+     */
+    void put(SentenceReview review) {
+        lock.lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+
+            var position = positions.get(review.sentenceID);
+            if (position == null) {
+                add(copyOf(review));
+            } else {
+                var previous = heap[position];
+                heap[position] = copyOf(review);
+                reposition(position, previous);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies an attempt to the sentence's review the way the review worker does, creating the review if the
+     * sentence hasn't been reviewed yet. Does nothing before the queue is loaded.
+     */
+    void applyAttempt(String sentenceID, String userID, Language language, AttemptStatus status) {
+        lock.lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+
+            var position = positions.get(sentenceID);
+            if (position == null) {
+                // The worker creates the stored review with its own ID; this one is replaced on the next load
+                var review = new SentenceReview(UUID.randomUUID().toString(), sentenceID, userID, language);
+                review.review(status);
+                add(review);
+            } else {
+                var previous = heap[position];
+                var review = copyOf(previous);
+                review.review(status);
+                heap[position] = review;
+                reposition(position, previous);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        lastAccessNanos = System.nanoTime();
+        if (loaded) {
+            return;
+        }
+
+        for (var review : loader.get()) {
+            add(copyOf(review));
+        }
+        loaded = true;
+    }
+
+    private void add(SentenceReview review) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(16, 2 * size));
+        }
+        heap[size] = review;
+        positions.put(review.sentenceID, size);
+        siftUp(size++);
+    }
+
+    // Restores the heap order after the review at position i replaced previous
+    private void reposition(int i, SentenceReview previous) {
+        if (compare(heap[i], previous) < 0) {
+            siftUp(i);
+        } else {
+            siftDown(i);
+        }
+    }
+
+    private void siftUp(int i) {
+        var review = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (compare(heap[parent], review) <= 0) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        heap[i] = review;
+        positions.put(review.sentenceID, i);
+    }
+
+    private void siftDown(int i) {
+        var review = heap[i];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (compare(review, heap[child]) <= 0) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        heap[i] = review;
+        positions.put(review.sentenceID, i);
+    }
+
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        positions.put(heap[to].sentenceID, to);
+    }
+
+    private static int compare(SentenceReview a, SentenceReview b) {
+        return a.getNextReviewInstant().compareTo(b.getNextReviewInstant());
+    }
+
+    private static SentenceReview copyOf(SentenceReview review) {
+        var copy = new SentenceReview(review.id, review.sentenceID, review.userID, review.language);
+        copy.setRepetitions(review.getRepetitions());
+        copy.setEaseFactor(review.getEaseFactor());
+        copy.setInterval(review.getInterval());
+        copy.setNextReviewInstant(review.getNextReviewInstant());
+        return copy;
+    }
+}
@@ -15,8 +15,16 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SequencedMap;
+import java.util.UUID;
 
 public class QuestionPostgresRepository implements QuestionRepository {
     private final JdbcTemplate jdbcTemplate;
@@ -26,33 +34,39 @@ public class QuestionPostgresRepository implements QuestionRepository {
         this.jdbcTemplate = jdbcTemplate;
     }
 
-    private static final RowMapper<Question> questionMapper = (rs, rowNum) -> {
+    private static final RowMapper<Question> questionMapper = (rs, rowNum) -> mapQuestion(rs, "");
+
+    /**
+     * Maps the question columns of the current row, each named {@code columnPrefix} followed by the column name,
+     * for queries that join questions with other tables.
+     */
+    static Question mapQuestion(ResultSet rs, String columnPrefix) throws SQLException {
         Map<String, Object> questionTypeSpecificData;
         List<WordExplanation> sourceWordExplanations;
         
         try {
             questionTypeSpecificData = objectMapper.readValue(
-                    rs.getString("question_type_specific_data"),
+                    rs.getString(columnPrefix + "question_type_specific_data"),
                     new TypeReference<>() {}
             );
             
             sourceWordExplanations = objectMapper.readValue(
-                    rs.getString("source_word_explanations"),
+                    rs.getString(columnPrefix + "source_word_explanations"),
                     new TypeReference<>() {}
             );
         } catch (JsonProcessingException e) {
-            throw new IllegalStateException(String.format("Failed to deserialize data for question %s", rs.getString("id")), e);
+            throw new IllegalStateException(String.format("Failed to deserialize data for question %s", rs.getString(columnPrefix + "id")), e);
         }
 
         return Question.createFromQuestionTypeSpecificData(
-                rs.getString("id"),
-                Language.valueOf(rs.getString("language")),
-                rs.getString("sentence_id"),
-                QuestionType.valueOf(rs.getString("question_type")),
+                rs.getString(columnPrefix + "id"),
+                Language.valueOf(rs.getString(columnPrefix + "language")),
+                rs.getString(columnPrefix + "sentence_id"),
+                QuestionType.valueOf(rs.getString(columnPrefix + "question_type")),
                 sourceWordExplanations,
                 questionTypeSpecificData
         );
-    };
+    }
 
     @Override
     public Question getQuestionByID(String id) throws QuestionNotFoundException {
@@ -112,6 +126,26 @@ public class QuestionPostgresRepository implements QuestionRepository {
         return jdbcTemplate.query(sql, questionMapper, sentenceID);
     }
 
+    @Override
+    public SequencedMap<String, List<Question>> getQuestionsBySentenceIDs(Collection<String> sentenceIDs) {
+        var sql = """
+            SELECT * FROM questions WHERE sentence_id = ANY(?::uuid[])
+            """;
+
+        var questionsBySentenceID = new HashMap<String, List<Question>>();
+        for (var question : jdbcTemplate.query(sql, questionMapper, (Object) sentenceIDs.toArray(String[]::new))) {
+            questionsBySentenceID.computeIfAbsent(question.getSentenceID(), id -> new ArrayList<>()).add(question);
+        }
+
+        var result = new LinkedHashMap<String, List<Question>>();
+        for (var sentenceID : sentenceIDs) {
+            // The database returns IDs in canonical form, which the caller's may not be in
+            var questions = questionsBySentenceID.get(UUID.fromString(sentenceID).toString());
+            result.put(sentenceID, questions == null ? List.of() : questions);
+        }
+        return result;
+    }
+
     @Override
     public Question getQuestionBySentenceID(String sentenceID) throws QuestionNotFoundException {
         var sql = """
@@ -0,0 +1,107 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Postgres;
+
+import com.munetmo.lingetic.lib.Utilities;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves users' frontiers back to sentences added below them outside of {@link SentencePostgresRepository#addSentence},
+ * such as by the content import scripts, which write to the database directly.
+ * <p>
+ * Checking a frontier means searching the sentences below it, which is the search the frontier exists to avoid,
+ * so a run only checks the languages whose sentences changed since the previous run.
+ */
+public class SentenceFrontierRepair {
+    private final JdbcTemplate jdbcTemplate;
+    // Language -> fingerprint of its sentences when it was last checked; only touched by the repairing thread
+    private final Map<String, String> checkedFingerprints = new HashMap<>();
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong languagesChecked = new AtomicLong();
+    private final AtomicLong frontiersRepaired = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public SentenceFrontierRepair(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Runs a repair for periodic schedules, which shouldn't stop on a failure: the failure is logged and counted in
+     * the metrics, and the languages it didn't get to are checked on the next run.
+     */
+    public void repair() {
+        runs.incrementAndGet();
+        try {
+            for (var entry : fingerprints().entrySet()) {
+                if (entry.getValue().equals(checkedFingerprints.get(entry.getKey()))) {
+                    continue;
+                }
+
+                frontiersRepaired.addAndGet(repairLanguage(entry.getKey()));
+                languagesChecked.incrementAndGet();
+                checkedFingerprints.put(entry.getKey(), entry.getValue());
+            }
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            Utilities.log("Sentence frontier repair failed: " + e, Utilities.Severity.ERROR);
+        }
+    }
+
+    public Map<String, Number> toMetrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("runs", runs.get());
+        metrics.put("languagesChecked", languagesChecked.get());
+        metrics.put("frontiersRepaired", frontiersRepaired.get());
+        metrics.put("failures", failures.get());
+        return metrics;
+    }
+
+    // Changes whenever a sentence is added to or removed from the language
+    private Map<String, String> fingerprints() {
+        var sql = """
+            SELECT source_language, count(*) || ':' || sum(hashtext(id::text)::bigint) AS fingerprint
+            FROM sentences
+            GROUP BY source_language
+            """;
+
+        var fingerprints = new HashMap<String, String>();
+        jdbcTemplate.query(sql, rs -> {
+            fingerprints.put(rs.getString("source_language"), rs.getString("fingerprint"));
+        });
+        return fingerprints;
+    }
+
+    private int repairLanguage(String language) {
+        var sql = """
+            WITH earliest AS (
+                SELECT f.user_id, below.difficulty, below.id
+                FROM sentence_frontiers f
+                CROSS JOIN LATERAL (
+                    SELECT s.difficulty, s.id FROM sentences s
+                    WHERE s.source_language = f.language
+                    AND (s.difficulty, s.id) < (f.difficulty, f.sentence_id)
+                    AND NOT EXISTS (
+                        SELECT 1 FROM sentence_reviews sr
+                        WHERE sr.sentence_id = s.id
+                        AND sr.user_id = f.user_id
+                    )
+                    ORDER BY s.difficulty, s.id
+                    LIMIT 1
+                ) below
+                WHERE f.language = ?
+            )
+            UPDATE sentence_frontiers f
+            SET difficulty = e.difficulty, sentence_id = e.id
+            FROM earliest e
+            WHERE f.user_id = e.user_id
+            AND f.language = ?
+            AND (f.difficulty, f.sentence_id) > (e.difficulty, e.id)
+            """;
+
+        return jdbcTemplate.update(sql, language, language);
+    }
+}
@@ -8,34 +8,100 @@ import com.munetmo.lingetic.LanguageTestService.Entities.Sentence;
 import com.munetmo.lingetic.LanguageTestService.Entities.WordExplanation;
 import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceRepository;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.SequencedMap;
 import java.util.UUID;
 
 public class SentencePostgresRepository implements SentenceRepository {
     private final JdbcTemplate jdbcTemplate;
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    static final RowMapper<Sentence> sentenceMapper = (rs, rowNum) -> {
+        var sourceWordExplanationsJson = rs.getString("source_word_explanations");
+        List<WordExplanation> sourceWordExplanations;
+        List<String> acceptedSourceTexts;
+
+        try {
+            sourceWordExplanations = objectMapper.readValue(
+                sourceWordExplanationsJson,
+                new TypeReference<List<WordExplanation>>() {}
+            );
+            acceptedSourceTexts = objectMapper.readValue(
+                rs.getString("accepted_source_texts"),
+                new TypeReference<List<String>>() {}
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize word explanations");
+        }
+
+        return new Sentence(
+            UUID.fromString(rs.getString("id")),
+            Language.valueOf(rs.getString("source_language")),
+            rs.getString("source_text"),
+            Language.valueOf(rs.getString("translation_language")),
+            rs.getString("translation_text"),
+            rs.getInt("difficulty"),
+            sourceWordExplanations,
+            acceptedSourceTexts
+        );
+    };
+
+    // Sentences of the frontier CTE's user at or after the frontier, which they haven't reviewed; takes the user ID
+    static final String FROM_FRONTIER = """
+        (s.difficulty, s.id) >= (
+                    COALESCE((SELECT difficulty FROM frontier), -2147483648),
+                    COALESCE((SELECT sentence_id FROM frontier), '00000000-0000-0000-0000-000000000000'::uuid)
+                )
+                AND NOT EXISTS (
+                    SELECT 1 FROM sentence_reviews sr
+                    WHERE sr.sentence_id = s.id
+                    AND sr.user_id = ?
+                )""";
+
+    /*
+     * Moves the frontier to the first row of the unreviewed CTE; takes the user ID and language. The update only
+     * happens if the frontier is still the one read, so it can't undo a move back by addSentence or
+     * SentenceFrontierRepair that committed in the meantime.
+     */
+    static final String ADVANCE_FRONTIER = """
+        INSERT INTO sentence_frontiers (user_id, language, difficulty, sentence_id)
+                SELECT ?, ?, difficulty, id FROM unreviewed
+                ORDER BY difficulty, id
+                LIMIT 1
+                ON CONFLICT (user_id, language) DO UPDATE
+                SET difficulty = EXCLUDED.difficulty, sentence_id = EXCLUDED.sentence_id
+                WHERE (sentence_frontiers.difficulty, sentence_frontiers.sentence_id)
+                    = (SELECT difficulty, sentence_id FROM frontier)
+                AND (sentence_frontiers.difficulty, sentence_frontiers.sentence_id)
+                    <> (EXCLUDED.difficulty, EXCLUDED.sentence_id)""";
+
     public SentencePostgresRepository(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
     public void deleteAllSentences() {
-        var sql = "DELETE FROM sentences";
-        jdbcTemplate.update(sql);
+        jdbcTemplate.update("DELETE FROM sentence_frontiers");
+        jdbcTemplate.update("DELETE FROM sentences");
     }
 
     @Override
     public void addSentence(Sentence sentence) {
         var sql = """
-            INSERT INTO sentences (id, source_language, source_text, translation_language, translation_text, difficulty, source_word_explanations)
-            VALUES (?::uuid, ?, ?, ?, ?, ?, ?::jsonb)
+            INSERT INTO sentences (id, source_language, source_text, translation_language, translation_text, difficulty, source_word_explanations, accepted_source_texts)
+            VALUES (?::uuid, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb)
             """;
 
         String sourceWordExplanationsJson;
+        String acceptedSourceTextsJson;
         try {
             sourceWordExplanationsJson = objectMapper.writeValueAsString(sentence.sourceWordExplanations());
+            acceptedSourceTextsJson = objectMapper.writeValueAsString(sentence.acceptedSourceTexts());
         } catch (JsonProcessingException e) {
             throw new IllegalStateException("Failed to serialize word explanations");
         }
@@ -48,7 +114,25 @@ public class SentencePostgresRepository implements SentenceRepository {
             sentence.translationLanguage().name(),
             sentence.translationText(),
             sentence.difficulty(),
-            sourceWordExplanationsJson
+            sourceWordExplanationsJson,
+            acceptedSourceTextsJson
+        );
+
+        // Users whose frontier is past the new sentence haven't reviewed it, so it becomes their frontier
+        var frontierSql = """
+            UPDATE sentence_frontiers
+            SET difficulty = ?, sentence_id = ?::uuid
+            WHERE language = ?
+            AND (difficulty, sentence_id) > (?, ?::uuid)
+            """;
+
+        jdbcTemplate.update(
+            frontierSql,
+            sentence.difficulty(),
+            sentence.id().toString(),
+            sentence.sourceLanguage().name(),
+            sentence.difficulty(),
+            sentence.id().toString()
         );
     }
 
@@ -58,67 +142,57 @@ public class SentencePostgresRepository implements SentenceRepository {
             SELECT * FROM sentences WHERE id = ?::uuid
             """;
 
-        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
-            var sourceWordExplanationsJson = rs.getString("source_word_explanations");
-            List<WordExplanation> sourceWordExplanations;
-
-            try {
-                sourceWordExplanations = objectMapper.readValue(
-                    sourceWordExplanationsJson,
-                    new TypeReference<List<WordExplanation>>() {}
-                );
-            } catch (JsonProcessingException e) {
-                throw new IllegalStateException("Failed to deserialize word explanations");
-            }
-
-            return new Sentence(
-                UUID.fromString(rs.getString("id")),
-                Language.valueOf(rs.getString("source_language")),
-                rs.getString("source_text"),
-                Language.valueOf(rs.getString("translation_language")),
-                rs.getString("translation_text"),
-                rs.getInt("difficulty"),
-                sourceWordExplanations
-            );
-        }, id);
+        return jdbcTemplate.queryForObject(sql, sentenceMapper, id);
     }
 
     @Override
-    public List<Sentence> getUnreviewedSentences(String userID, Language language, int limit) {
+    public SequencedMap<String, Sentence> getSentencesByIDs(Collection<String> ids) {
         var sql = """
-            SELECT s.* FROM sentences s
-            WHERE s.source_language = ?
-            AND NOT EXISTS (
-                SELECT 1 FROM sentence_reviews sr
-                WHERE sr.sentence_id = s.id
-                AND sr.user_id = ?
-            )
-            ORDER BY s.difficulty
-            LIMIT ?
+            SELECT * FROM sentences WHERE id = ANY(?::uuid[])
             """;
 
-        return jdbcTemplate.query(sql, (rs, rowNum) -> {
-            var sourceWordExplanationsJson = rs.getString("source_word_explanations");
-            List<WordExplanation> sourceWordExplanations;
-
-            try {
-                sourceWordExplanations = objectMapper.readValue(
-                    sourceWordExplanationsJson,
-                    new TypeReference<List<WordExplanation>>() {}
-                );
-            } catch (JsonProcessingException e) {
-                throw new IllegalStateException("Failed to deserialize word explanations");
+        var sentences = new HashMap<String, Sentence>();
+        for (var sentence : jdbcTemplate.query(sql, sentenceMapper, (Object) ids.toArray(String[]::new))) {
+            sentences.put(sentence.id().toString(), sentence);
+        }
+
+        var result = new LinkedHashMap<String, Sentence>();
+        for (var id : ids) {
+            // The database returns IDs in canonical form, which the caller's may not be in
+            var sentence = sentences.get(UUID.fromString(id).toString());
+            if (sentence != null) {
+                result.put(id, sentence);
             }
+        }
+        return result;
+    }
 
-            return new Sentence(
-                UUID.fromString(rs.getString("id")),
-                Language.valueOf(rs.getString("source_language")),
-                rs.getString("source_text"),
-                Language.valueOf(rs.getString("translation_language")),
-                rs.getString("translation_text"),
-                rs.getInt("difficulty"),
-                sourceWordExplanations
-            );
-        }, language.name(), userID, limit);
+    /**
+     * Reads sentences from the user's frontier on instead of searching all of the language's sentences, and
+     * moves the frontier up to the first sentence found, since everything between the two has been reviewed.
+     */
+    @Override
+    public List<Sentence> getUnreviewedSentences(String userID, Language language, int limit) {
+        var sql = """
+            WITH frontier AS (
+                SELECT difficulty, sentence_id FROM sentence_frontiers
+                WHERE user_id = ? AND language = ?
+            ),
+            unreviewed AS (
+                SELECT s.* FROM sentences s
+                WHERE s.source_language = ?
+                AND %s
+                ORDER BY s.difficulty, s.id
+                LIMIT ?
+            ),
+            advanced AS (
+                %s
+            )
+            SELECT * FROM unreviewed
+            ORDER BY difficulty, id
+            """.formatted(FROM_FRONTIER, ADVANCE_FRONTIER);
+
+        return jdbcTemplate.query(sql, sentenceMapper, userID, language.name(), language.name(), userID, limit,
+            userID, language.name());
     }
 }
@@ -7,27 +7,35 @@ import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceReviewRepos
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.UUID;
 
 public class SentenceReviewPostgresRepository implements SentenceReviewRepository {
     private final JdbcTemplate jdbcTemplate;
 
-    private final RowMapper<SentenceReview> reviewMapper = (rs, rowNum) -> {
+    private static final RowMapper<SentenceReview> reviewMapper = (rs, rowNum) -> mapReview(rs, "");
+
+    /**
+     * Maps the review columns of the current row, each named {@code columnPrefix} followed by the column name,
+     * for queries that join reviews with other tables.
+     */
+    static SentenceReview mapReview(ResultSet rs, String columnPrefix) throws SQLException {
         var review = new SentenceReview(
-            rs.getString("id"),
-            rs.getString("sentence_id"),
-            rs.getString("user_id"),
-            Language.valueOf(rs.getString("language"))
+            rs.getString(columnPrefix + "id"),
+            rs.getString(columnPrefix + "sentence_id"),
+            rs.getString(columnPrefix + "user_id"),
+            Language.valueOf(rs.getString(columnPrefix + "language"))
         );
         
-        review.setRepetitions(rs.getInt("repetitions"));
-        review.setEaseFactor(rs.getDouble("ease_factor"));
-        review.setInterval(rs.getInt("interval"));
-        review.setNextReviewInstant(rs.getTimestamp("next_review_instant").toInstant());
+        review.setRepetitions(rs.getInt(columnPrefix + "repetitions"));
+        review.setEaseFactor(rs.getDouble(columnPrefix + "ease_factor"));
+        review.setInterval(rs.getInt(columnPrefix + "interval"));
+        review.setNextReviewInstant(rs.getTimestamp(columnPrefix + "next_review_instant").toInstant());
 
         return review;
-    };
+    }
 
     public SentenceReviewPostgresRepository(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
@@ -65,6 +73,16 @@ public class SentenceReviewPostgresRepository implements SentenceReviewRepositor
         );
     }
 
+    @Override
+    public List<String> getReviewedSentenceIDs(String userID, Language language) {
+        var sql = """
+            SELECT sentence_id FROM sentence_reviews
+            WHERE user_id = ? AND language = ?
+            """;
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getString("sentence_id"), userID, language.name());
+    }
+
     @Override
     public void update(SentenceReview review) {
         var sql = """
@@ -0,0 +1,89 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Postgres;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.TestCandidate;
+import com.munetmo.lingetic.LanguageTestService.Repositories.TestAssemblyRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+public class TestAssemblyPostgresRepository implements TestAssemblyRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<TestCandidate> candidateMapper = (rs, rowNum) -> new TestCandidate(
+        rs.getString("candidate_sentence_id"),
+        rs.getString("review_id") == null ? null : SentenceReviewPostgresRepository.mapReview(rs, "review_")
+    );
+
+    public TestAssemblyPostgresRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<TestCandidate> assembleTest(String userID, Language language, int limit, Instant now) {
+        // One round trip: the reviews and unreviewed sentences are picked in CTEs and returned in test order, and the
+        // user's frontier is moved up as in SentencePostgresRepository.getUnreviewedSentences
+        var sql = """
+            WITH reviews AS (
+                SELECT * FROM sentence_reviews
+                WHERE user_id = ? AND language = ?
+                ORDER BY next_review_instant ASC
+                LIMIT ?
+            ),
+            frontier AS (
+                SELECT difficulty, sentence_id FROM sentence_frontiers
+                WHERE user_id = ? AND language = ?
+            ),
+            unreviewed AS (
+                SELECT s.id, s.difficulty FROM sentences s
+                WHERE s.source_language = ?
+                AND %s
+                ORDER BY s.difficulty, s.id
+                LIMIT GREATEST(? - (SELECT count(*) FROM reviews WHERE next_review_instant < ?), 0)
+            ),
+            advanced AS (
+                %s
+            ),
+            candidates AS (
+                SELECT r.sentence_id, r.id AS review_id, 0 AS part,
+                    row_number() OVER (ORDER BY r.next_review_instant) AS position
+                FROM reviews r
+                UNION ALL
+                SELECT u.id, NULL, 1, row_number() OVER (ORDER BY u.difficulty, u.id)
+                FROM unreviewed u
+            )
+            SELECT
+                c.sentence_id AS candidate_sentence_id,
+                r.id AS review_id,
+                r.sentence_id AS review_sentence_id,
+                r.user_id AS review_user_id,
+                r.language AS review_language,
+                r.repetitions AS review_repetitions,
+                r.ease_factor AS review_ease_factor,
+                r.interval AS review_interval,
+                r.next_review_instant AS review_next_review_instant
+            FROM candidates c
+            LEFT JOIN reviews r ON r.id = c.review_id
+            ORDER BY c.part, c.position
+            """.formatted(SentencePostgresRepository.FROM_FRONTIER, SentencePostgresRepository.ADVANCE_FRONTIER);
+
+        return jdbcTemplate.query(
+            sql,
+            candidateMapper,
+            userID,
+            language.name(),
+            limit,
+            userID,
+            language.name(),
+            language.name(),
+            userID,
+            limit,
+            Timestamp.from(now),
+            userID,
+            language.name()
+        );
+    }
+}
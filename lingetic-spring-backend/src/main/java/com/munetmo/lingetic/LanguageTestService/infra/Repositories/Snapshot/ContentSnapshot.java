@@ -0,0 +1,143 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.Question;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.TranslationQuestion;
+import com.munetmo.lingetic.LanguageTestService.Entities.Sentence;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * All sentences and questions as of one load, grouped by the sentences' source language. A snapshot never
+ * changes; newer content comes in a new snapshot with a higher version.
+ */
+public final class ContentSnapshot {
+    private final long version;
+    private final Instant loadedAt;
+    private final EnumMap<Language, LanguageContent> contents;
+
+    ContentSnapshot(long version, Instant loadedAt, EnumMap<Language, LanguageContent> contents) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.contents = contents;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    @Nullable LanguageContent content(Language language) {
+        return contents.get(language);
+    }
+
+    @Nullable Sentence findSentence(String id) {
+        var uuid = UUID.fromString(id);
+        for (var content : contents.values()) {
+            int sentence = content.findSentence(uuid);
+            if (sentence != LanguageContent.NOT_FOUND) {
+                return content.sentence(sentence);
+            }
+        }
+        return null;
+    }
+
+    @Nullable TranslationQuestion findTranslationQuestion(String sentenceID) {
+        var uuid = UUID.fromString(sentenceID);
+        for (var content : contents.values()) {
+            int sentence = content.findSentence(uuid);
+            if (sentence != LanguageContent.NOT_FOUND) {
+                return content.translationQuestion(sentence);
+            }
+        }
+        return null;
+    }
+
+    @Nullable Question findQuestion(String id) {
+        var uuid = UUID.fromString(id);
+        for (var content : contents.values()) {
+            int question = content.findQuestion(uuid);
+            if (question != LanguageContent.NOT_FOUND) {
+                return content.question(question);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The questions of the sentence with the given ID, or an empty list if there is no such sentence.
+     */
+    List<Question> questionsOfSentence(String sentenceID) {
+        var uuid = UUID.fromString(sentenceID);
+        for (var content : contents.values()) {
+            int sentence = content.findSentence(uuid);
+            if (sentence != LanguageContent.NOT_FOUND) {
+                return content.questionsOfSentence(sentence);
+            }
+        }
+        return List.of();
+    }
+
+    List<Question> allQuestions() {
+        var questions = new ArrayList<Question>();
+        for (var content : contents.values()) {
+            for (int i = 0; i < content.questionCount(); i++) {
+                questions.add(content.question(i));
+            }
+        }
+        return questions;
+    }
+
+    /**
+     * Up to {@code limit} of the easiest sentences in {@code language} whose IDs are not in {@code excludedIDs},
+     * from easiest to hardest.
+     */
+    List<Sentence> easiestSentences(Language language, Set<UUID> excludedIDs, int limit) {
+        var content = contents.get(language);
+        if (content == null) {
+            return List.of();
+        }
+
+        var sentences = new ArrayList<Sentence>(Math.min(limit, content.sentenceCount()));
+        for (int rank = 0; rank < content.sentenceCount() && sentences.size() < limit; rank++) {
+            int sentence = content.sentenceAtDifficultyRank(rank);
+            if (!excludedIDs.contains(content.sentenceID(sentence))) {
+                sentences.add(content.sentence(sentence));
+            }
+        }
+        return sentences;
+    }
+
+    public Map<String, Number> toMetrics() {
+        int sentenceCount = 0;
+        int questionCount = 0;
+        long byteSize = 0;
+        long decodes = 0;
+        for (var content : contents.values()) {
+            sentenceCount += content.sentenceCount();
+            questionCount += content.questionCount();
+            byteSize += content.byteSize();
+            decodes += content.decodes();
+        }
+
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("version", version);
+        metrics.put("loadedAtEpochSecond", loadedAt.getEpochSecond());
+        metrics.put("sentences", sentenceCount);
+        metrics.put("questions", questionCount);
+        metrics.put("bytes", byteSize);
+        metrics.put("decodes", decodes);
+        return metrics;
+    }
+}
@@ -0,0 +1,82 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.QuestionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Reads every sentence and question from Postgres into a {@link ContentSnapshot}.
+ */
+final class ContentSnapshotLoader {
+    private final JdbcTemplate jdbcTemplate;
+
+    ContentSnapshotLoader(JdbcTemplate jdbcTemplate) {
+        // Reading all content can outlast the query timeout meant for requests, so it goes without one
+        this.jdbcTemplate = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+    }
+
+    ContentSnapshot load(long version) {
+        var loadedAt = Instant.now();
+
+        var sentencesByLanguage = new EnumMap<Language, List<LanguageContent.SentenceRow>>(Language.class);
+        var sentenceLanguages = new HashMap<UUID, Language>();
+        var sentencesSql = """
+            SELECT id, source_language, translation_language, source_text, translation_text, difficulty, source_word_explanations,
+                accepted_source_texts
+            FROM sentences
+            """;
+        jdbcTemplate.query(sentencesSql, rs -> {
+            var id = UUID.fromString(rs.getString("id"));
+            var language = Language.valueOf(rs.getString("source_language"));
+            sentenceLanguages.put(id, language);
+            sentencesByLanguage.computeIfAbsent(language, l -> new ArrayList<>()).add(new LanguageContent.SentenceRow(
+                id,
+                Language.valueOf(rs.getString("translation_language")),
+                rs.getString("source_text"),
+                rs.getString("translation_text"),
+                rs.getInt("difficulty"),
+                rs.getString("source_word_explanations"),
+                rs.getString("accepted_source_texts")
+            ));
+        });
+
+        var questionsByLanguage = new EnumMap<Language, List<LanguageContent.QuestionRow>>(Language.class);
+        var questionsSql = """
+            SELECT id, question_type, language, question_type_specific_data, sentence_id, source_word_explanations
+            FROM questions
+            WHERE sentence_id IS NOT NULL
+            """;
+        jdbcTemplate.query(questionsSql, rs -> {
+            var sentenceID = UUID.fromString(rs.getString("sentence_id"));
+            // Sentences added between the two queries are picked up by the next load
+            var language = sentenceLanguages.get(sentenceID);
+            if (language == null) {
+                return;
+            }
+
+            questionsByLanguage.computeIfAbsent(language, l -> new ArrayList<>()).add(new LanguageContent.QuestionRow(
+                UUID.fromString(rs.getString("id")),
+                QuestionType.valueOf(rs.getString("question_type")),
+                Language.valueOf(rs.getString("language")),
+                sentenceID,
+                rs.getString("question_type_specific_data"),
+                rs.getString("source_word_explanations")
+            ));
+        });
+
+        var contents = new EnumMap<Language, LanguageContent>(Language.class);
+        sentencesByLanguage.forEach((language, sentences) -> contents.put(
+            language,
+            new LanguageContent(language, sentences, questionsByLanguage.getOrDefault(language, List.of()))
+        ));
+        return new ContentSnapshot(version, loadedAt, contents);
+    }
+}
@@ -0,0 +1,60 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link ContentSnapshot}. The first snapshot is loaded on construction. A reload builds the
+ * next version off to the side and then swaps it in with a single write, so readers never wait for it and always
+ * see one complete snapshot.
+ */
+public class ContentSnapshotStore {
+    private final ContentSnapshotLoader loader;
+    // Keeps concurrent reloads from loading the same version twice
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile ContentSnapshot current;
+    private final AtomicLong reloadFailures = new AtomicLong();
+
+    public ContentSnapshotStore(JdbcTemplate jdbcTemplate) {
+        this.loader = new ContentSnapshotLoader(jdbcTemplate);
+        this.current = loader.load(1);
+    }
+
+    public ContentSnapshot current() {
+        return current;
+    }
+
+    public ContentSnapshot reload() {
+        reloadLock.lock();
+        try {
+            var next = loader.load(current.version() + 1);
+            current = next;
+            return next;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads for periodic refreshes, which shouldn't stop on a failure: the current snapshot keeps being served
+     * and the failure is counted in the metrics.
+     */
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            reloadFailures.incrementAndGet();
+        }
+    }
+
+    public Map<String, Number> toMetrics() {
+        var metrics = new LinkedHashMap<String, Number>(current.toMetrics());
+        metrics.put("reloadFailures", reloadFailures.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,337 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.Question;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.QuestionType;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.TranslationQuestion;
+import com.munetmo.lingetic.LanguageTestService.Entities.Sentence;
+import com.munetmo.lingetic.LanguageTestService.Entities.WordExplanation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * The sentences in one source language and their questions, stored column by column.
+ * <p>
+ * Sentences and questions are numbered by ordinals in ID order, so an ID is found by binary search over two long
+ * columns. Texts and JSON documents are packed as UTF-8 and only decoded when a sentence or question is read. The
+ * decoded instance is held in a {@link SoftMemo} and shared by later reads, so it is built to be immutable; the
+ * packed columns stay, so one the garbage collector drops is decoded again.
+ */
+final class LanguageContent {
+    static final int NOT_FOUND = -1;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Language[] languages = Language.values();
+    private static final QuestionType[] questionTypes = QuestionType.values();
+
+    record SentenceRow(
+        UUID id,
+        Language translationLanguage,
+        String sourceText,
+        String translationText,
+        int difficulty,
+        String sourceWordExplanationsJson,
+        String acceptedSourceTextsJson
+    ) {
+    }
+
+    record QuestionRow(
+        UUID id,
+        QuestionType questionType,
+        Language language,
+        UUID sentenceID,
+        String questionTypeSpecificDataJson,
+        String sourceWordExplanationsJson
+    ) {
+    }
+
+    private final Language language;
+
+    private final long[] sentenceIDHighs;
+    private final long[] sentenceIDLows;
+    private final byte[] translationLanguages;
+    private final int[] difficulties;
+    private final PackedStrings sourceTexts;
+    private final PackedStrings translationTexts;
+    private final PackedStrings sentenceExplanations;
+    private final PackedStrings acceptedSourceTexts;
+    // Sentence ordinals from easiest to hardest
+    private final int[] sentencesByDifficulty;
+    // The inverse of sentencesByDifficulty: the difficulty rank of each sentence ordinal
+    private final int[] sentenceDifficultyRanks;
+
+    private final long[] questionIDHighs;
+    private final long[] questionIDLows;
+    private final byte[] questionTypeOrdinals;
+    private final byte[] questionLanguages;
+    private final int[] questionSentences;
+    private final PackedStrings questionData;
+    private final PackedStrings questionExplanations;
+    // The questions of sentence i are sentenceQuestions[sentenceQuestionStarts[i], sentenceQuestionStarts[i + 1])
+    private final int[] sentenceQuestionStarts;
+    private final int[] sentenceQuestions;
+
+    private final SoftMemo<Sentence> decodedSentences;
+    private final SoftMemo<Question> decodedQuestions;
+    private final SoftMemo<TranslationQuestion> translationQuestions;
+
+    /**
+     * Packs {@code sentences} and {@code questions} into columns. Every question's sentence must be among the
+     * sentences.
+     */
+    LanguageContent(Language language, List<SentenceRow> sentences, List<QuestionRow> questions) {
+        this.language = language;
+
+        var sortedSentences = sentences.stream().sorted(Comparator.comparing(SentenceRow::id, LanguageContent::compareIDs)).toList();
+        int sentenceCount = sortedSentences.size();
+        sentenceIDHighs = new long[sentenceCount];
+        sentenceIDLows = new long[sentenceCount];
+        translationLanguages = new byte[sentenceCount];
+        difficulties = new int[sentenceCount];
+        var sourceTextsBuilder = new PackedStrings.Builder(sentenceCount);
+        var translationTextsBuilder = new PackedStrings.Builder(sentenceCount);
+        var sentenceExplanationsBuilder = new PackedStrings.Builder(sentenceCount);
+        var acceptedSourceTextsBuilder = new PackedStrings.Builder(sentenceCount);
+        for (int i = 0; i < sentenceCount; i++) {
+            var sentence = sortedSentences.get(i);
+            sentenceIDHighs[i] = sentence.id().getMostSignificantBits();
+            sentenceIDLows[i] = sentence.id().getLeastSignificantBits();
+            translationLanguages[i] = (byte) sentence.translationLanguage().ordinal();
+            difficulties[i] = sentence.difficulty();
+            sourceTextsBuilder.add(sentence.sourceText());
+            translationTextsBuilder.add(sentence.translationText());
+            sentenceExplanationsBuilder.add(sentence.sourceWordExplanationsJson());
+            acceptedSourceTextsBuilder.add(sentence.acceptedSourceTextsJson());
+        }
+        sourceTexts = sourceTextsBuilder.build();
+        translationTexts = translationTextsBuilder.build();
+        sentenceExplanations = sentenceExplanationsBuilder.build();
+        acceptedSourceTexts = acceptedSourceTextsBuilder.build();
+
+        // Ties are broken by ID, which is the ordinal order
+        sentencesByDifficulty = IntStream.range(0, sentenceCount)
+            .boxed()
+            .sorted(Comparator.comparingInt(i -> difficulties[i]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        sentenceDifficultyRanks = new int[sentenceCount];
+        for (int rank = 0; rank < sentenceCount; rank++) {
+            sentenceDifficultyRanks[sentencesByDifficulty[rank]] = rank;
+        }
+
+        var sortedQuestions = questions.stream().sorted(Comparator.comparing(QuestionRow::id, LanguageContent::compareIDs)).toList();
+        int questionCount = sortedQuestions.size();
+        questionIDHighs = new long[questionCount];
+        questionIDLows = new long[questionCount];
+        questionTypeOrdinals = new byte[questionCount];
+        questionLanguages = new byte[questionCount];
+        questionSentences = new int[questionCount];
+        var questionDataBuilder = new PackedStrings.Builder(questionCount);
+        var questionExplanationsBuilder = new PackedStrings.Builder(questionCount);
+        sentenceQuestionStarts = new int[sentenceCount + 1];
+        for (int i = 0; i < questionCount; i++) {
+            var question = sortedQuestions.get(i);
+            int sentence = findSentence(question.sentenceID());
+            if (sentence == NOT_FOUND) {
+                throw new IllegalArgumentException("Sentence %s of question %s is not in the %s content".formatted(
+                    question.sentenceID(), question.id(), language));
+            }
+
+            questionIDHighs[i] = question.id().getMostSignificantBits();
+            questionIDLows[i] = question.id().getLeastSignificantBits();
+            questionTypeOrdinals[i] = (byte) question.questionType().ordinal();
+            questionLanguages[i] = (byte) question.language().ordinal();
+            questionSentences[i] = sentence;
+            questionDataBuilder.add(question.questionTypeSpecificDataJson());
+            questionExplanationsBuilder.add(question.sourceWordExplanationsJson());
+            sentenceQuestionStarts[sentence + 1]++;
+        }
+        questionData = questionDataBuilder.build();
+        questionExplanations = questionExplanationsBuilder.build();
+
+        // Counting sort of the questions by sentence, keeping ID order within each sentence
+        for (int i = 0; i < sentenceCount; i++) {
+            sentenceQuestionStarts[i + 1] += sentenceQuestionStarts[i];
+        }
+        sentenceQuestions = new int[questionCount];
+        var next = sentenceQuestionStarts.clone();
+        for (int i = 0; i < questionCount; i++) {
+            sentenceQuestions[next[questionSentences[i]]++] = i;
+        }
+
+        decodedSentences = new SoftMemo<>(sentenceCount, this::decodeSentence);
+        decodedQuestions = new SoftMemo<>(questionCount, this::decodeQuestion);
+        translationQuestions = new SoftMemo<>(sentenceCount, sentence -> TranslationQuestion.fromSentence(sentence(sentence)));
+    }
+
+    Language language() {
+        return language;
+    }
+
+    int sentenceCount() {
+        return sentenceIDHighs.length;
+    }
+
+    int questionCount() {
+        return questionIDHighs.length;
+    }
+
+    /**
+     * The ordinal of the sentence with the given ID, or {@link #NOT_FOUND}.
+     */
+    int findSentence(UUID id) {
+        return binarySearch(sentenceIDHighs, sentenceIDLows, id);
+    }
+
+    /**
+     * The ordinal of the question with the given ID, or {@link #NOT_FOUND}.
+     */
+    int findQuestion(UUID id) {
+        return binarySearch(questionIDHighs, questionIDLows, id);
+    }
+
+    UUID sentenceID(int sentence) {
+        return new UUID(sentenceIDHighs[sentence], sentenceIDLows[sentence]);
+    }
+
+    /**
+     * The ordinal of the sentence at {@code rank} when sentences are ordered from easiest to hardest.
+     */
+    int sentenceAtDifficultyRank(int rank) {
+        return sentencesByDifficulty[rank];
+    }
+
+    int difficultyRank(int sentence) {
+        return sentenceDifficultyRanks[sentence];
+    }
+
+    Sentence sentence(int sentence) {
+        return decodedSentences.get(sentence);
+    }
+
+    Question question(int question) {
+        return decodedQuestions.get(question);
+    }
+
+    /**
+     * The question asking for the sentence's source text given its translation.
+     */
+    TranslationQuestion translationQuestion(int sentence) {
+        return translationQuestions.get(sentence);
+    }
+
+    /**
+     * How many sentences and questions have been decoded, counting again the ones decoded after being dropped.
+     */
+    long decodes() {
+        return decodedSentences.computations() + decodedQuestions.computations() + translationQuestions.computations();
+    }
+
+    private Sentence decodeSentence(int sentence) {
+        List<WordExplanation> sourceWordExplanations;
+        List<String> acceptedSourceTexts;
+        try {
+            sourceWordExplanations = sentenceExplanations.readJson(sentence, objectMapper, new TypeReference<>() {});
+            acceptedSourceTexts = this.acceptedSourceTexts.readJson(sentence, objectMapper, new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to deserialize word explanations", e);
+        }
+
+        return new Sentence(
+            sentenceID(sentence),
+            language,
+            sourceTexts.get(sentence),
+            languages[translationLanguages[sentence]],
+            translationTexts.get(sentence),
+            difficulties[sentence],
+            immutableCopyOf(sourceWordExplanations),
+            List.copyOf(acceptedSourceTexts)
+        );
+    }
+
+    private Question decodeQuestion(int question) {
+        var id = new UUID(questionIDHighs[question], questionIDLows[question]).toString();
+        Map<String, Object> questionTypeSpecificData;
+        List<WordExplanation> sourceWordExplanations;
+        try {
+            questionTypeSpecificData = questionData.readJson(question, objectMapper, new TypeReference<>() {});
+            sourceWordExplanations = questionExplanations.readJson(question, objectMapper, new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format("Failed to deserialize data for question %s", id), e);
+        }
+
+        return Question.createFromQuestionTypeSpecificData(
+            id,
+            languages[questionLanguages[question]],
+            sentenceID(questionSentences[question]).toString(),
+            questionTypes[questionTypeOrdinals[question]],
+            immutableCopyOf(sourceWordExplanations),
+            questionTypeSpecificData
+        );
+    }
+
+    List<Question> questionsOfSentence(int sentence) {
+        var questions = new ArrayList<Question>(sentenceQuestionStarts[sentence + 1] - sentenceQuestionStarts[sentence]);
+        for (int i = sentenceQuestionStarts[sentence]; i < sentenceQuestionStarts[sentence + 1]; i++) {
+            questions.add(question(sentenceQuestions[i]));
+        }
+        return questions;
+    }
+
+    /**
+     * Approximate heap size of the columns and memo slots, in bytes. Decoded instances aren't counted, since they
+     * are only softly reachable.
+     */
+    long byteSize() {
+        return 8L * (sentenceIDHighs.length + sentenceIDLows.length + questionIDHighs.length + questionIDLows.length)
+            + translationLanguages.length + questionTypeOrdinals.length + questionLanguages.length
+            + 4L * (difficulties.length + sentencesByDifficulty.length + sentenceDifficultyRanks.length
+                + questionSentences.length + sentenceQuestionStarts.length + sentenceQuestions.length)
+            + sourceTexts.byteSize() + translationTexts.byteSize() + sentenceExplanations.byteSize()
+            + acceptedSourceTexts.byteSize() + questionData.byteSize() + questionExplanations.byteSize()
+            + decodedSentences.byteSize() + decodedQuestions.byteSize() + translationQuestions.byteSize();
+    }
+
+    private static List<WordExplanation> immutableCopyOf(List<WordExplanation> wordExplanations) {
+        return wordExplanations.stream()
+            .map(explanation -> new WordExplanation(
+                explanation.startIndex(), explanation.word(), List.copyOf(explanation.properties()), explanation.comment()))
+            .toList();
+    }
+
+    private static int binarySearch(long[] highs, long[] lows, UUID id) {
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        int from = 0;
+        int to = highs.length - 1;
+        while (from <= to) {
+            int middle = (from + to) >>> 1;
+            int comparison = Long.compareUnsigned(highs[middle], high);
+            if (comparison == 0) {
+                comparison = Long.compareUnsigned(lows[middle], low);
+            }
+
+            if (comparison < 0) {
+                from = middle + 1;
+            } else if (comparison > 0) {
+                to = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private static int compareIDs(UUID a, UUID b) {
+        int comparison = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return comparison != 0 ? comparison : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
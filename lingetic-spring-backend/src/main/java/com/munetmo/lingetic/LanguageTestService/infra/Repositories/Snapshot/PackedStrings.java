@@ -0,0 +1,64 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A column of strings stored back to back as UTF-8 in one array, so a column of thousands of strings is two
+ * objects instead of thousands. Strings are decoded each time they are read.
+ */
+final class PackedStrings {
+    private final byte[] bytes;
+    // String i is bytes[offsets[i], offsets[i + 1])
+    private final int[] offsets;
+
+    private PackedStrings(byte[] bytes, int[] offsets) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+    }
+
+    int size() {
+        return offsets.length - 1;
+    }
+
+    String get(int index) {
+        return new String(bytes, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses string {@code index} as JSON, straight from the packed bytes.
+     */
+    <T> T readJson(int index, ObjectMapper objectMapper, TypeReference<T> type) throws IOException {
+        return objectMapper.readValue(bytes, offsets[index], offsets[index + 1] - offsets[index], type);
+    }
+
+    long byteSize() {
+        return bytes.length + 4L * offsets.length;
+    }
+
+    static final class Builder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final int[] offsets;
+        private int count;
+
+        Builder(int expectedCount) {
+            this.offsets = new int[expectedCount + 1];
+        }
+
+        void add(String string) {
+            bytes.writeBytes(string.getBytes(StandardCharsets.UTF_8));
+            offsets[++count] = bytes.size();
+        }
+
+        PackedStrings build() {
+            if (count != offsets.length - 1) {
+                throw new IllegalStateException("Expected %d strings but got %d".formatted(offsets.length - 1, count));
+            }
+            return new PackedStrings(bytes.toByteArray(), offsets);
+        }
+    }
+}
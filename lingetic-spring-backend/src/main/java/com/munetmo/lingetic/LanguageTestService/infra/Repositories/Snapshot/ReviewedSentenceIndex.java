@@ -0,0 +1,56 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot;
+
+import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceReviewRepository;
+import com.munetmo.lingetic.LanguageTestService.infra.Repositories.InMemory.IdleExpiringUserLanguageMap;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps each active user's reviewed sentences per language in a {@link ReviewedSet}, so finding their unreviewed
+ * sentences doesn't need a query. A set is rebuilt from the stored reviews on first use and dropped after it has
+ * been idle for the configured time.
+ * <p>
+ * Like {@code InMemorySentenceReviewRepository}, this only hears about attempts submitted through this process,
+ * so it is only accurate when every attempt of a user goes through it.
+ */
+public class ReviewedSentenceIndex {
+    private final IdleExpiringUserLanguageMap<ReviewedSet> sets;
+
+    private final AtomicLong loads = new AtomicLong();
+
+    public ReviewedSentenceIndex(SentenceReviewRepository sentenceReviewRepository, Duration idleTimeout) {
+        this.sets = new IdleExpiringUserLanguageMap<>(idleTimeout, (userID, language) -> new ReviewedSet(() -> {
+            loads.incrementAndGet();
+            return sentenceReviewRepository.getReviewedSentenceIDs(userID, language);
+        }), ReviewedSet::lastAccessNanos);
+    }
+
+    int[] unreviewedRanks(String userID, LanguageContent content, int limit) {
+        return sets.getOrCreate(userID, content.language()).unreviewedRanks(content, limit);
+    }
+
+    void onSentenceReviewed(String userID, LanguageContent content, UUID sentenceID) {
+        var set = sets.getIfPresent(userID, content.language());
+        if (set != null) {
+            set.add(content, sentenceID);
+        }
+    }
+
+    public Map<String, Number> toMetrics() {
+        long byteSize = 0;
+        for (var set : sets.values()) {
+            byteSize += set.byteSize();
+        }
+
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("sets", sets.size());
+        metrics.put("bytes", byteSize);
+        metrics.put("loads", loads.get());
+        metrics.put("evictions", sets.evictions());
+        return metrics;
+    }
+}
@@ -0,0 +1,117 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot;
+
+import com.munetmo.lingetic.lib.bitmap.RoaringBitmap;
+import org.jspecify.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * The sentences one user has reviewed in one language, as a bitmap of the sentences' difficulty ranks in a
+ * {@link LanguageContent}. The easiest unreviewed sentences are then the first clear bits.
+ * <p>
+ * The reviewed sentence IDs are loaded on first access. Ranks change between snapshots, so when a newer content is
+ * passed in, the bitmap is rebuilt for it by looking each sentence up by ID.
+ */
+final class ReviewedSet {
+    private final Supplier<List<String>> loader;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // The content the ranks are in, null until loaded
+    private @Nullable LanguageContent content;
+    private RoaringBitmap ranks = new RoaringBitmap();
+    // Reviewed sentences the content doesn't have yet, such as ones imported after it was loaded
+    private HashSet<UUID> unplaced = new HashSet<>();
+    // Every rank below this is set; only moves up while the content stays the same
+    private int firstUnreviewedRank;
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    ReviewedSet(Supplier<List<String>> loader) {
+        this.loader = loader;
+    }
+
+    long lastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    /**
+     * The difficulty ranks in {@code content} of up to {@code limit} of the easiest sentences the user hasn't
+     * reviewed, from easiest to hardest.
+     */
+    int[] unreviewedRanks(LanguageContent content, int limit) {
+        lock.lock();
+        try {
+            useContent(content);
+
+            firstUnreviewedRank = ranks.nextClearBit(firstUnreviewedRank);
+            var result = new int[Math.max(0, Math.min(limit, content.sentenceCount() - ranks.cardinality()))];
+            int rank = firstUnreviewedRank;
+            for (int i = 0; i < result.length && rank < content.sentenceCount(); i++) {
+                result[i] = rank;
+                rank = ranks.nextClearBit(rank + 1);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void add(LanguageContent content, UUID sentenceID) {
+        lock.lock();
+        try {
+            useContent(content);
+            place(content, sentenceID, ranks, unplaced);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long byteSize() {
+        lock.lock();
+        try {
+            return ranks.byteSize() + 32L * unplaced.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void useContent(LanguageContent next) {
+        lastAccessNanos = System.nanoTime();
+        var previous = content;
+        if (previous == next) {
+            return;
+        }
+
+        // Built off to the side, so a failed load leaves the set unloaded rather than empty
+        var nextRanks = new RoaringBitmap();
+        var nextUnplaced = new HashSet<UUID>();
+        if (previous == null) {
+            for (var id : loader.get()) {
+                place(next, UUID.fromString(id), nextRanks, nextUnplaced);
+            }
+        } else {
+            ranks.forEach(rank -> place(next, previous.sentenceID(previous.sentenceAtDifficultyRank(rank)), nextRanks,
+                nextUnplaced));
+            for (var id : unplaced) {
+                place(next, id, nextRanks, nextUnplaced);
+            }
+        }
+
+        content = next;
+        ranks = nextRanks;
+        unplaced = nextUnplaced;
+        firstUnreviewedRank = 0;
+    }
+
+    private static void place(LanguageContent content, UUID sentenceID, RoaringBitmap ranks, HashSet<UUID> unplaced) {
+        int sentence = content.findSentence(sentenceID);
+        if (sentence == LanguageContent.NOT_FOUND) {
+            unplaced.add(sentenceID);
+        } else {
+            ranks.add(content.difficultyRank(sentence));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot;
+
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.Question;
+import com.munetmo.lingetic.LanguageTestService.Exceptions.QuestionNotFoundException;
+import com.munetmo.lingetic.LanguageTestService.Exceptions.QuestionWithIDAlreadyExistsException;
+import com.munetmo.lingetic.LanguageTestService.Repositories.QuestionRepository;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SequencedMap;
+
+/**
+ * Serves questions from the current {@link ContentSnapshot}. Writes go to the underlying repository and are
+ * followed by a reload, so they are visible to the next read.
+ */
+public class SnapshotQuestionRepository implements QuestionRepository {
+    private final QuestionRepository questionRepository;
+    private final ContentSnapshotStore snapshotStore;
+
+    public SnapshotQuestionRepository(QuestionRepository questionRepository, ContentSnapshotStore snapshotStore) {
+        this.questionRepository = questionRepository;
+        this.snapshotStore = snapshotStore;
+    }
+
+    @Override
+    public void addQuestion(Question question) throws QuestionWithIDAlreadyExistsException {
+        questionRepository.addQuestion(question);
+        snapshotStore.reload();
+    }
+
+    @Override
+    public Question getQuestionByID(String id) throws QuestionNotFoundException {
+        var question = snapshotStore.current().findQuestion(id);
+        if (question == null) {
+            throw new QuestionNotFoundException("Question with ID %s not found.".formatted(id));
+        }
+        return question;
+    }
+
+    @Override
+    public Question getQuestionBySentenceID(String sentenceID) throws QuestionNotFoundException {
+        var questions = getQuestionsBySentenceID(sentenceID);
+        if (questions.isEmpty()) {
+            throw new QuestionNotFoundException("Question not found for sentence: " + sentenceID);
+        }
+        return questions.getFirst();
+    }
+
+    @Override
+    public List<Question> getQuestionsBySentenceID(String sentenceID) {
+        return snapshotStore.current().questionsOfSentence(sentenceID);
+    }
+
+    @Override
+    public SequencedMap<String, List<Question>> getQuestionsBySentenceIDs(Collection<String> sentenceIDs) {
+        var snapshot = snapshotStore.current();
+        var result = new LinkedHashMap<String, List<Question>>();
+        for (var sentenceID : sentenceIDs) {
+            result.put(sentenceID, snapshot.questionsOfSentence(sentenceID));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Question> getAllQuestions() {
+        return snapshotStore.current().allQuestions();
+    }
+
+    @Override
+    public void deleteAllQuestions() {
+        questionRepository.deleteAllQuestions();
+        snapshotStore.reload();
+    }
+}
@@ -0,0 +1,121 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot;
+
+import com.munetmo.lingetic.LanguageService.Entities.Language;
+import com.munetmo.lingetic.LanguageTestService.Entities.Questions.TranslationQuestion;
+import com.munetmo.lingetic.LanguageTestService.Entities.Sentence;
+import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceRepository;
+import com.munetmo.lingetic.LanguageTestService.Repositories.SentenceReviewRepository;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SequencedMap;
+import java.util.UUID;
+
+/**
+ * Serves sentences from the current {@link ContentSnapshot}. Writes go to the underlying repository and are
+ * followed by a reload, so they are visible to the next read.
+ */
+public class SnapshotSentenceRepository implements SentenceRepository {
+    private final SentenceRepository sentenceRepository;
+    private final SentenceReviewRepository sentenceReviewRepository;
+    private final ContentSnapshotStore snapshotStore;
+    // Looks up unreviewed sentences in memory when set, instead of querying the user's reviewed sentences each time
+    private final @Nullable ReviewedSentenceIndex reviewedSentenceIndex;
+
+    public SnapshotSentenceRepository(SentenceRepository sentenceRepository,
+            SentenceReviewRepository sentenceReviewRepository, ContentSnapshotStore snapshotStore,
+            @Nullable ReviewedSentenceIndex reviewedSentenceIndex) {
+        this.sentenceRepository = sentenceRepository;
+        this.sentenceReviewRepository = sentenceReviewRepository;
+        this.snapshotStore = snapshotStore;
+        this.reviewedSentenceIndex = reviewedSentenceIndex;
+    }
+
+    @Override
+    public void deleteAllSentences() {
+        sentenceRepository.deleteAllSentences();
+        snapshotStore.reload();
+    }
+
+    @Override
+    public void addSentence(Sentence sentence) {
+        sentenceRepository.addSentence(sentence);
+        snapshotStore.reload();
+    }
+
+    @Override
+    public Sentence getSentenceByID(String id) {
+        var sentence = snapshotStore.current().findSentence(id);
+        if (sentence == null) {
+            throw new EmptyResultDataAccessException("Sentence with ID %s not found".formatted(id), 1);
+        }
+        return sentence;
+    }
+
+    @Override
+    public SequencedMap<String, Sentence> getSentencesByIDs(Collection<String> ids) {
+        // Read one snapshot for all the IDs, so a concurrent reload can't mix versions
+        var snapshot = snapshotStore.current();
+        var result = new LinkedHashMap<String, Sentence>();
+        for (var id : ids) {
+            var sentence = snapshot.findSentence(id);
+            if (sentence != null) {
+                result.put(id, sentence);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public SequencedMap<String, TranslationQuestion> getTranslationQuestionsByIDs(Collection<String> ids) {
+        var snapshot = snapshotStore.current();
+        var result = new LinkedHashMap<String, TranslationQuestion>();
+        for (var id : ids) {
+            var question = snapshot.findTranslationQuestion(id);
+            if (question != null) {
+                result.put(id, question);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Sentence> getUnreviewedSentences(String userID, Language language, int limit) {
+        if (reviewedSentenceIndex != null) {
+            var content = snapshotStore.current().content(language);
+            if (content == null) {
+                return List.of();
+            }
+
+            var ranks = reviewedSentenceIndex.unreviewedRanks(userID, content, limit);
+            var sentences = new ArrayList<Sentence>(ranks.length);
+            for (int rank : ranks) {
+                sentences.add(content.sentence(content.sentenceAtDifficultyRank(rank)));
+            }
+            return sentences;
+        }
+
+        var reviewedIDs = new HashSet<UUID>();
+        for (var id : sentenceReviewRepository.getReviewedSentenceIDs(userID, language)) {
+            reviewedIDs.add(UUID.fromString(id));
+        }
+        return snapshotStore.current().easiestSentences(language, reviewedIDs, limit);
+    }
+
+    @Override
+    public void onAttemptSubmitted(String userID, String sentenceID, Language language) {
+        if (reviewedSentenceIndex == null) {
+            return;
+        }
+
+        var content = snapshotStore.current().content(language);
+        if (content != null) {
+            reviewedSentenceIndex.onSentenceReviewed(userID, content, UUID.fromString(sentenceID));
+        }
+    }
+}
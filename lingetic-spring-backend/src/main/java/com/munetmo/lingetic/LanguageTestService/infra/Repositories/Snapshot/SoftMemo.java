@@ -0,0 +1,49 @@
+package com.munetmo.lingetic.LanguageTestService.infra.Repositories.Snapshot;
+
+import java.lang.ref.SoftReference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Values computed from an ordinal on first read and held through soft references, so the frequently read ones stay
+ * in memory while the garbage collector can drop the rest when the heap runs low. A dropped value is computed again
+ * on its next read, which is why the values must be cheap to rebuild from data that is kept.
+ */
+final class SoftMemo<T> {
+    private final AtomicReferenceArray<SoftReference<T>> values;
+    private final IntFunction<T> compute;
+    private final AtomicLong computations = new AtomicLong();
+
+    SoftMemo(int size, IntFunction<T> compute) {
+        this.values = new AtomicReferenceArray<>(size);
+        this.compute = compute;
+    }
+
+    T get(int ordinal) {
+        var reference = values.get(ordinal);
+        var value = reference != null ? reference.get() : null;
+        if (value == null) {
+            // Two threads may compute the same ordinal at once; either result can be kept
+            value = compute.apply(ordinal);
+            values.set(ordinal, new SoftReference<>(value));
+            computations.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * How many values have been computed, including the ones computed again after being dropped.
+     */
+    long computations() {
+        return computations.get();
+    }
+
+    /**
+     * Approximate heap size of the reference slots, in bytes; the values themselves aren't counted, since the
+     * garbage collector may drop them at any time.
+     */
+    long byteSize() {
+        return 4L * values.length();
+    }
+}
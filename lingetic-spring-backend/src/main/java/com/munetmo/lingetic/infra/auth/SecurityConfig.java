@@ -39,6 +39,7 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/language-service/batch/**").authenticated()
                         .requestMatchers("/language-service/**").permitAll()
                         .requestMatchers("/health-service/wakeup").permitAll()
                         .anyRequest().authenticated())
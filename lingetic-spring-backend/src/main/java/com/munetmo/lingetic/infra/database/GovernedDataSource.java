@@ -0,0 +1,90 @@
+package com.munetmo.lingetic.infra.database;
+
+import com.munetmo.lingetic.lib.concurrent.Bulkhead;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands out a connection only while holding a {@link Bulkhead} permit, and gives the permit back when the
+ * connection is closed. With the bulkhead sized to the pool, requests queue fairly on the bulkhead rather than
+ * inside the pool, where a waiting virtual thread would pin its carrier.
+ */
+public class GovernedDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final Bulkhead bulkhead;
+
+    public GovernedDataSource(DataSource targetDataSource, Bulkhead bulkhead) {
+        super(targetDataSource);
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        enter();
+        try {
+            return governed(super.getConnection());
+        } catch (SQLException | RuntimeException | Error e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        enter();
+        try {
+            return governed(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException | Error e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void enter() throws SQLException {
+        try {
+            bulkhead.acquire();
+        } catch (Bulkhead.BulkheadFullException e) {
+            throw new SQLTransientConnectionException(e.getMessage(), e);
+        }
+    }
+
+    private Connection governed(Connection connection) {
+        var released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "close" -> {
+                    try {
+                        connection.close();
+                    } finally {
+                        // Closing twice must not give back a permit someone else holds
+                        if (released.compareAndSet(false, true)) {
+                            bulkhead.release();
+                        }
+                    }
+                    yield null;
+                }
+                default -> {
+                    try {
+                        yield method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            });
+    }
+}
@@ -1,5 +1,8 @@
 package com.munetmo.lingetic.infra.database;
 
+import com.munetmo.lingetic.lib.concurrent.Bulkhead;
+import com.munetmo.lingetic.lib.metrics.MetricsRegistry;
+import com.zaxxer.hikari.HikariDataSource;
 import org.jspecify.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -8,6 +11,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 
 @Configuration
 public class PostgresDatabaseConfig {
@@ -27,22 +31,41 @@ public class PostgresDatabaseConfig {
     @Nullable
     private String driverClassName;
 
+    @Value("${app.database.max-pool-size}")
+    private int maxPoolSize;
+
+    @Value("${app.database.max-wait-millis}")
+    private long maxWaitMillis;
+
+    // Bounds every statement, including lookups a request has stopped waiting for
+    @Value("${app.database.query-timeout-seconds}")
+    private int queryTimeoutSeconds;
+
     @Bean
-    public DataSource dataSource() {
+    public DataSource dataSource(MetricsRegistry metricsRegistry) {
         if (url == null || username == null || password == null || driverClassName == null) {
             throw new IllegalStateException("Database configuration is not set");
         }
 
-        return DataSourceBuilder.create()
+        var pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
                 .url(url)
                 .username(username)
                 .password(password)
                 .driverClassName(driverClassName)
                 .build();
+        pool.setMaximumPoolSize(maxPoolSize);
+
+        // One permit per connection, so callers wait for a connection on the bulkhead instead of in the pool
+        var bulkhead = new Bulkhead(maxPoolSize, Duration.ofMillis(maxWaitMillis));
+        metricsRegistry.register("databaseConnections", bulkhead::toMetrics);
+        return new GovernedDataSource(pool, bulkhead);
     }
 
     @Bean
     public JdbcTemplate jdbcTemplate(DataSource dataSource) {
-        return new JdbcTemplate(dataSource);
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+        return jdbcTemplate;
     }
 }
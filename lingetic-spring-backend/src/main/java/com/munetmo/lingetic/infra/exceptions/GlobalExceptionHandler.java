@@ -2,7 +2,9 @@ package com.munetmo.lingetic.infra.exceptions;
 
 import com.munetmo.lingetic.LanguageTestService.Exceptions.QuestionNotFoundException;
 import com.munetmo.lingetic.LanguageTestService.Exceptions.QuestionWithIDAlreadyExistsException;
+import com.munetmo.lingetic.lib.concurrent.TaskGroup;
 import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -48,6 +50,26 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(TaskGroup.DeadlineExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleDeadlineExceededException(
+            TaskGroup.DeadlineExceededException ex, WebRequest request) {
+        return buildErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getClass().getSimpleName(),
+                ex.getMessage() != null ? ex.getMessage() : "Request took too long"
+        );
+    }
+
+    @ExceptionHandler(CannotGetJdbcConnectionException.class)
+    public ResponseEntity<Map<String, Object>> handleCannotGetJdbcConnectionException(
+            CannotGetJdbcConnectionException ex, WebRequest request) {
+        return buildErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getClass().getSimpleName(),
+                ex.getMessage() != null ? ex.getMessage() : "No database connection available"
+        );
+    }
+
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<Map<String, Object>> handleAuthenticationException(
             AuthenticationException ex, WebRequest request) {
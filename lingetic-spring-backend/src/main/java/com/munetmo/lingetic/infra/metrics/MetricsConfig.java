@@ -0,0 +1,13 @@
+package com.munetmo.lingetic.infra.metrics;
+
+import com.munetmo.lingetic.lib.metrics.MetricsRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public MetricsRegistry metricsRegistry() {
+        return new MetricsRegistry();
+    }
+}
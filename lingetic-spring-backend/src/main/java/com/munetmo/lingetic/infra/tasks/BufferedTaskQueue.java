@@ -0,0 +1,350 @@
+package com.munetmo.lingetic.infra.tasks;
+
+import com.munetmo.lingetic.lib.Utilities;
+import com.munetmo.lingetic.lib.concurrent.CircuitBreaker;
+import com.munetmo.lingetic.lib.tasks.Task;
+import com.munetmo.lingetic.lib.tasks.TaskQueue;
+import org.jspecify.annotations.Nullable;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queues tasks in memory and publishes them to another {@link TaskQueue} from a few publisher threads, so submitting
+ * a task never waits for the broker. The queue is bounded; what happens to a task that doesn't fit is up to the
+ * {@link OverflowPolicy}. Publishers take tasks in batches of up to the batch size, waiting at most the linger time
+ * for a batch to fill, and submit each batch at once.
+ * <p>
+ * Publishing goes through a {@link CircuitBreaker}. While it is open, queued tasks wait for the broker to come back
+ * and new ones overflow, instead of every publisher failing slowly on each task. Tasks that keep failing while the
+ * breaker stays closed are set aside like the tasks left over on {@link #close}, after the publishers have drained the
+ * queue for up to the drain timeout: they are spilled if there is a spill file and lost otherwise.
+ */
+public class BufferedTaskQueue implements TaskQueue, AutoCloseable {
+    public enum OverflowPolicy {
+        // Waits up to the maximum block time for room, then sheds
+        BLOCK,
+        SHED,
+        // Appends to the spill file, which is published once the queue has emptied
+        SPILL
+    }
+
+    private record PendingTask(String taskId, Object payload, String queueName) {
+    }
+
+    // Tasks that keep failing while the broker is otherwise fine are abandoned rather than retried forever
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long IDLE_POLL_MILLIS = 500;
+    private static final long BREAKER_POLL_MILLIS = 100;
+
+    private final TaskQueue target;
+    private final ArrayBlockingQueue<PendingTask> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long maxBlockNanos;
+    private final @Nullable TaskSpillFile spillFile;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration drainTimeout;
+    private final List<Thread> publishers = new ArrayList<>();
+    // Spilled tasks stay in the file until they are published, so only one publisher reads it at a time
+    private final ReentrantLock spillPublishLock = new ReentrantLock();
+    private volatile boolean closing;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong publisherErrors = new AtomicLong();
+
+    /**
+     * @param spillFile required by {@link OverflowPolicy#SPILL}; with other policies, only used for the tasks left
+     *                  over on shutdown
+     */
+    BufferedTaskQueue(TaskQueue target, int capacity, int publisherCount, int batchSize, Duration linger,
+            OverflowPolicy overflowPolicy, Duration maxBlock, @Nullable TaskSpillFile spillFile, CircuitBreaker circuitBreaker, Duration drainTimeout,
+            ThreadFactory threadFactory) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (publisherCount <= 0) {
+            throw new IllegalArgumentException("publisherCount must be positive");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        if (overflowPolicy == OverflowPolicy.SPILL && spillFile == null) {
+            throw new IllegalArgumentException("The SPILL overflow policy needs a spill file");
+        }
+
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.maxBlockNanos = maxBlock.toNanos();
+        this.spillFile = spillFile;
+        this.circuitBreaker = circuitBreaker;
+        this.drainTimeout = drainTimeout;
+
+        for (int i = 0; i < publisherCount; i++) {
+            var publisher = threadFactory.newThread(this::publishUntilClosed);
+            publisher.setName("task-publisher-" + i);
+            publishers.add(publisher);
+            publisher.start();
+        }
+    }
+
+    @Override
+    public <T> void submitTask(String taskId, T payload, String queueName) {
+        var task = new PendingTask(taskId, payload, queueName);
+        if (!closing && queue.offer(task)) {
+            return;
+        }
+
+        if (!closing && overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                if (queue.offer(task, maxBlockNanos, TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            spill(task);
+        } else {
+            shed.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+        closing = true;
+
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        try {
+            for (var publisher : publishers) {
+                TimeUnit.NANOSECONDS.timedJoin(publisher, Math.max(1, deadline - System.nanoTime()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (var publisher : publishers) {
+            publisher.interrupt();
+        }
+        for (var publisher : publishers) {
+            // Returns promptly: an interrupted publisher only spills what it holds
+            joinUninterruptibly(publisher);
+        }
+
+        PendingTask task;
+        while ((task = queue.poll()) != null) {
+            abandon(task);
+        }
+    }
+
+    public Map<String, Number> toMetrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("queued", queue.size());
+        metrics.put("capacity", queue.size() + queue.remainingCapacity());
+        metrics.put("published", published.get());
+        metrics.put("failures", failures.get());
+        metrics.put("shed", shed.get());
+        metrics.put("spilled", spilled.get());
+        metrics.put("spillPending", spillFile == null ? 0 : spillFile.size());
+        metrics.put("dropped", dropped.get());
+        metrics.put("spillUnreadable", spillFile == null ? 0 : spillFile.unreadableLines());
+        metrics.put("publisherErrors", publisherErrors.get());
+        circuitBreaker.toMetrics().forEach((name, value) -> metrics.put("breaker." + name, value));
+        return metrics;
+    }
+
+    private void publishUntilClosed() {
+        try {
+            while (true) {
+                try {
+                    var task = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (task != null) {
+                        publishBatches(takeBatch(task));
+                    } else if (closing) {
+                        return;
+                    } else {
+                        publishSpilled();
+                    }
+                } catch (RuntimeException e) {
+                    // Such as a spill file that can't be read; the publisher carries on with the queue
+                    publisherErrors.incrementAndGet();
+                    Utilities.log("Task publisher failed: " + e, Utilities.Severity.ERROR);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Interrupted by close once the drain timeout passed
+        }
+    }
+
+    private List<PendingTask> takeBatch(PendingTask first) throws InterruptedException {
+        var batch = new ArrayList<PendingTask>(batchSize);
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize && !closing) {
+            var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+        return batch;
+    }
+
+    // Only runs when the queue is empty, so spilled tasks never get ahead of a backlog in memory. Each batch is
+    // removed from the file once it has been published; tasks that failed to publish were spilled again by then.
+    private void publishSpilled() throws InterruptedException {
+        if (spillFile == null || spillFile.size() == 0 || !spillPublishLock.tryLock()) {
+            return;
+        }
+
+        try {
+            while (!closing && queue.isEmpty() && circuitBreaker.state() == CircuitBreaker.State.CLOSED) {
+                var head = spillFile.peek(batchSize);
+                if (head.lineCount() == 0) {
+                    return;
+                }
+
+                var tasks = new ArrayList<PendingTask>(head.tasks().size());
+                for (var spilledTask : head.tasks()) {
+                    tasks.add(new PendingTask(spilledTask.taskId(), spilledTask.payload(), spilledTask.queueName()));
+                }
+                try {
+                    publishBatches(tasks);
+                } catch (InterruptedException e) {
+                    spillFile.remove(head.lineCount());
+                    throw e;
+                }
+                spillFile.remove(head.lineCount());
+            }
+        } finally {
+            spillPublishLock.unlock();
+        }
+    }
+
+    private void publishBatches(List<PendingTask> tasks) throws InterruptedException {
+        var byQueue = new LinkedHashMap<String, List<PendingTask>>();
+        for (var task : tasks) {
+            byQueue.computeIfAbsent(task.queueName(), queueName -> new ArrayList<>()).add(task);
+        }
+
+        var batches = new ArrayList<>(byQueue.values());
+        for (int i = 0; i < batches.size(); i++) {
+            try {
+                publish(batches.get(i));
+            } catch (InterruptedException e) {
+                batches.subList(i + 1, batches.size()).forEach(batch -> batch.forEach(this::abandon));
+                throw e;
+            }
+        }
+    }
+
+    // Publishes tasks for a single queue
+    private void publish(List<PendingTask> batch) throws InterruptedException {
+        var remaining = batch;
+        int attempts = 0;
+        while (true) {
+            while (!circuitBreaker.tryAcquirePermission()) {
+                try {
+                    Thread.sleep(BREAKER_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    remaining.forEach(this::abandon);
+                    throw e;
+                }
+            }
+
+            var tasks = new ArrayList<Task<?>>(remaining.size());
+            for (var task : remaining) {
+                tasks.add(new Task<>(task.taskId(), task.payload()));
+            }
+            try {
+                target.submitTasks(tasks, remaining.getFirst().queueName());
+                circuitBreaker.onSuccess();
+                published.addAndGet(remaining.size());
+                return;
+            } catch (TaskQueue.SubmissionFailedException e) {
+                var failedTaskIds = new HashSet<>(e.failedTaskIds());
+                var failed = remaining.stream().filter(task -> failedTaskIds.contains(task.taskId())).toList();
+                published.addAndGet(remaining.size() - failed.size());
+                if (failed.isEmpty()) {
+                    return;
+                }
+                remaining = failed;
+            } catch (RuntimeException e) {
+                // Nothing is known to have gone through
+            }
+
+            circuitBreaker.onFailure();
+            failures.incrementAndGet();
+            // Interrupted by close, possibly inside the submit; retrying would only fail again. The flag is cleared
+            // so that the spill file can still be written, and the exception carries the interrupt on.
+            if (Thread.interrupted()) {
+                remaining.forEach(this::abandon);
+                throw new InterruptedException("Interrupted while publishing tasks");
+            }
+            // Failures that opened the breaker are the broker's, so they don't count against the tasks
+            if (circuitBreaker.state() == CircuitBreaker.State.CLOSED && ++attempts >= MAX_ATTEMPTS) {
+                remaining.forEach(this::abandon);
+                return;
+            }
+        }
+    }
+
+    private void abandon(PendingTask task) {
+        if (spillFile != null) {
+            spill(task);
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void spill(PendingTask task) {
+        if (spillFile == null) {
+            shed.incrementAndGet();
+            return;
+        }
+
+        try {
+            spillFile.append(task.taskId(), task.payload(), task.queueName());
+            spilled.incrementAndGet();
+        } catch (UncheckedIOException e) {
+            shed.incrementAndGet();
+        }
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
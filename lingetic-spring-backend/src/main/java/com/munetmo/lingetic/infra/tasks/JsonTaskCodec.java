@@ -0,0 +1,45 @@
+package com.munetmo.lingetic.infra.tasks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.munetmo.lingetic.lib.tasks.Task;
+import com.munetmo.lingetic.lib.tasks.TaskCodec;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.io.IOException;
+
+/**
+ * Tasks as JSON documents of their ID and payload. Encodes any payload Jackson can serialize, so it is the codec
+ * every other one falls back to.
+ */
+public class JsonTaskCodec implements TaskCodec {
+    private final ObjectMapper objectMapper;
+
+    public JsonTaskCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String contentType() {
+        return MessageProperties.CONTENT_TYPE_JSON;
+    }
+
+    @Override
+    public byte[] encode(Task<?> task) {
+        try {
+            return objectMapper.writeValueAsBytes(task);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize task", e);
+        }
+    }
+
+    @Override
+    public <T> Task<T> decode(byte[] body, Class<T> payloadType) {
+        var type = objectMapper.getTypeFactory().constructParametricType(Task.class, payloadType);
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Task body is not a JSON task", e);
+        }
+    }
+}
@@ -2,6 +2,10 @@ package com.munetmo.lingetic.infra.tasks;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.munetmo.lingetic.lib.Utilities;
+import com.munetmo.lingetic.lib.concurrent.CircuitBreaker;
+import com.munetmo.lingetic.lib.metrics.MetricsRegistry;
+import com.munetmo.lingetic.lib.tasks.CompactTaskCodec;
+import com.munetmo.lingetic.lib.tasks.TaskCodec;
 import com.munetmo.lingetic.lib.tasks.TaskQueue;
 
 import org.jspecify.annotations.Nullable;
@@ -13,24 +17,82 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class RabbitMQConfig {
     @Value("${spring.rabbitmq.uri}")
     @Nullable
     private String uri;
 
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreadsEnabled;
+
+    // Tasks queued in memory before the overflow policy applies
+    @Value("${app.task-submit.capacity}")
+    private int taskSubmitCapacity;
+
+    @Value("${app.task-submit.publishers}")
+    private int taskSubmitPublishers;
+
+    // Tasks a publisher takes at once, and how long it waits for that many
+    @Value("${app.task-submit.batch-size}")
+    private int taskSubmitBatchSize;
+
+    @Value("${app.task-submit.linger-millis}")
+    private long taskSubmitLingerMillis;
+
+    @Value("${app.task-submit.confirm-timeout-millis}")
+    private long taskSubmitConfirmTimeoutMillis;
+
+    // Sends of a message before its task counts as failed
+    @Value("${app.task-submit.max-sends}")
+    private int taskSubmitMaxSends;
+
+    // Encodes payloads with a compact schema in binary; only turn on once every consumer can decode it
+    @Value("${app.task-submit.compact-codec}")
+    private boolean taskSubmitCompactCodec;
+
+    @Value("${app.task-submit.overflow}")
+    private BufferedTaskQueue.OverflowPolicy taskSubmitOverflow;
+
+    @Value("${app.task-submit.max-block-millis}")
+    private long taskSubmitMaxBlockMillis;
+
+    // Where overflowing tasks and tasks left over on shutdown are kept; blank loses them instead
+    @Value("${app.task-submit.spill-file}")
+    @Nullable
+    private String taskSubmitSpillFile;
+
+    @Value("${app.task-submit.breaker-failures}")
+    private int taskSubmitBreakerFailures;
+
+    @Value("${app.task-submit.breaker-open-seconds}")
+    private long taskSubmitBreakerOpenSeconds;
+
+    @Value("${app.task-submit.drain-seconds}")
+    private long taskSubmitDrainSeconds;
+
     @Bean
     public ConnectionFactory connectionFactory() {
         Utilities.assert_(uri != null && !uri.isBlank(), "RabbitMQ URI cannot be null or empty");
 
         var factory = new CachingConnectionFactory();
         factory.setUri(uri);
+        factory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+        factory.setPublisherReturns(true);
         return factory;
     }
 
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
-        return new RabbitTemplate(connectionFactory);
+        var template = new RabbitTemplate(connectionFactory);
+        // Unroutable messages come back instead of being dropped, so they can be sent again
+        template.setMandatory(true);
+        return template;
     }
 
     @Bean
@@ -38,11 +100,39 @@ public class RabbitMQConfig {
         return new RabbitAdmin(connectionFactory);
     }
 
-    @Bean
+    @Bean(destroyMethod = "close")
     public TaskQueue taskQueue(
             RabbitTemplate rabbitTemplate,
             RabbitAdmin rabbitAdmin,
-            ObjectMapper objectMapper) {
-        return new RabbitMQTaskQueue(rabbitTemplate, rabbitAdmin, objectMapper);
+            ObjectMapper objectMapper,
+            List<CompactTaskCodec.PayloadSchema<?>> payloadSchemas,
+            MetricsRegistry metricsRegistry) {
+        var spillFile = taskSubmitSpillFile == null || taskSubmitSpillFile.isBlank()
+                ? null
+                : new TaskSpillFile(Path.of(taskSubmitSpillFile), objectMapper);
+
+        var jsonCodec = new JsonTaskCodec(objectMapper);
+        List<TaskCodec> codecs = taskSubmitCompactCodec
+                ? List.of(new CompactTaskCodec(payloadSchemas), jsonCodec)
+                : List.of(jsonCodec);
+
+        var rabbitMQTaskQueue = new RabbitMQTaskQueue(rabbitTemplate, rabbitAdmin, codecs,
+                Duration.ofMillis(taskSubmitConfirmTimeoutMillis), taskSubmitMaxSends);
+        metricsRegistry.register("taskPublishing", rabbitMQTaskQueue::toMetrics);
+
+        var taskQueue = new BufferedTaskQueue(
+                rabbitMQTaskQueue,
+                taskSubmitCapacity,
+                taskSubmitPublishers,
+                taskSubmitBatchSize,
+                Duration.ofMillis(taskSubmitLingerMillis),
+                taskSubmitOverflow,
+                Duration.ofMillis(taskSubmitMaxBlockMillis),
+                spillFile,
+                new CircuitBreaker(taskSubmitBreakerFailures, Duration.ofSeconds(taskSubmitBreakerOpenSeconds)),
+                Duration.ofSeconds(taskSubmitDrainSeconds),
+                virtualThreadsEnabled ? Thread.ofVirtual().factory() : Executors.defaultThreadFactory());
+        metricsRegistry.register("taskSubmit", taskQueue::toMetrics);
+        return taskQueue;
     }
 }
@@ -1,43 +1,188 @@
 package com.munetmo.lingetic.infra.tasks;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.munetmo.lingetic.lib.tasks.Task;
+import com.munetmo.lingetic.lib.tasks.TaskCodec;
 import com.munetmo.lingetic.lib.tasks.TaskQueue;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes tasks as persistent messages to the default exchange with publisher confirms. A batch is sent without
+ * waiting in between, and only then are the confirms awaited, each matched to its message by correlation ID. Nacked,
+ * returned and unconfirmed messages are sent again a few times, so a task only counts as submitted once the broker
+ * has taken responsibility for it.
+ * <p>
+ * Each task is encoded by the first of the codecs that can encode it, and its message carries that codec's content
+ * type. Needs a connection factory with correlated publisher confirms and returns, and a mandatory template.
+ */
 public class RabbitMQTaskQueue implements TaskQueue {
     private final RabbitTemplate rabbitTemplate;
     private final RabbitAdmin rabbitAdmin;
-    private final ObjectMapper objectMapper;
+    private final List<TaskCodec> codecs;
+    private final Duration confirmTimeout;
+    private final int maxSends;
+    private final Set<String> declaredQueues = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong confirmed = new AtomicLong();
+    private final AtomicLong nacked = new AtomicLong();
+    private final AtomicLong returned = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
 
+    /**
+     * @param maxSends how often a message is sent before its task counts as failed
+     */
     public RabbitMQTaskQueue(
             RabbitTemplate rabbitTemplate,
             RabbitAdmin rabbitAdmin,
-            ObjectMapper objectMapper) {
+            List<TaskCodec> codecs,
+            Duration confirmTimeout,
+            int maxSends) {
+        if (codecs.isEmpty()) {
+            throw new IllegalArgumentException("codecs must not be empty");
+        }
+        if (maxSends <= 0) {
+            throw new IllegalArgumentException("maxSends must be positive");
+        }
+
         this.rabbitTemplate = rabbitTemplate;
         this.rabbitAdmin = rabbitAdmin;
-        this.objectMapper = objectMapper;
+        this.codecs = List.copyOf(codecs);
+        this.confirmTimeout = confirmTimeout;
+        this.maxSends = maxSends;
     }
 
     @Override
     public <T> void submitTask(String taskId, T payload, String queueName) {
-        ensureQueueExists(queueName);
-
-        var task = new Task<T>(taskId, payload);
-        String message;
-        try {
-            message = objectMapper.writeValueAsString(task);
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Failed to serialize task", e);
+        submitTasks(List.of(new Task<T>(taskId, payload)), queueName);
+    }
+
+    @Override
+    public void submitTasks(List<Task<?>> tasks, String queueName) {
+        var unconfirmed = new ArrayList<Task<?>>(tasks);
+        RuntimeException lastFailure = null;
+        for (int send = 0; send < maxSends && !unconfirmed.isEmpty(); send++) {
+            try {
+                ensureQueueExists(queueName);
+                unconfirmed = sendAndConfirm(unconfirmed, queueName);
+            } catch (RuntimeException e) {
+                lastFailure = e;
+                // The queue may have gone with the connection, so it is declared again
+                declaredQueues.remove(queueName);
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+            }
+        }
+
+        if (!unconfirmed.isEmpty()) {
+            var failedTaskIds = unconfirmed.stream().map(Task::id).toList();
+            var message = "%d of %d tasks were not confirmed by the broker".formatted(failedTaskIds.size(), tasks.size());
+            throw lastFailure == null
+                ? new SubmissionFailedException(message, failedTaskIds)
+                : new SubmissionFailedException(message, failedTaskIds, lastFailure);
+        }
+    }
+
+    public Map<String, Number> toMetrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("declaredQueues", declaredQueues.size());
+        metrics.put("confirmed", confirmed.get());
+        metrics.put("nacked", nacked.get());
+        metrics.put("returned", returned.get());
+        metrics.put("timedOut", timedOut.get());
+        metrics.put("sentBytes", sentBytes.get());
+        return metrics;
+    }
+
+    // Returns the tasks whose messages the broker didn't confirm
+    private ArrayList<Task<?>> sendAndConfirm(List<Task<?>> tasks, String queueName) {
+        var correlations = new ArrayList<CorrelationData>(tasks.size());
+        // Sends the whole batch on one channel
+        rabbitTemplate.invoke(operations -> {
+            for (var task : tasks) {
+                // A fresh ID per send, so a late confirm of an earlier send can't be taken for this one
+                var correlation = new CorrelationData(UUID.randomUUID().toString());
+                operations.send("", queueName, toMessage(task), correlation);
+                correlations.add(correlation);
+            }
+            return null;
+        });
+
+        var unconfirmed = new ArrayList<Task<?>>();
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        for (int i = 0; i < tasks.size(); i++) {
+            var correlation = correlations.get(i);
+            try {
+                var confirm = correlation.getFuture().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (!confirm.isAck()) {
+                    nacked.incrementAndGet();
+                    unconfirmed.add(tasks.get(i));
+                } else if (correlation.getReturned() != null) {
+                    // Acked but routed nowhere, which the broker does when the queue is missing
+                    returned.incrementAndGet();
+                    declaredQueues.remove(queueName);
+                    unconfirmed.add(tasks.get(i));
+                } else {
+                    confirmed.incrementAndGet();
+                }
+            } catch (TimeoutException e) {
+                timedOut.incrementAndGet();
+                unconfirmed.add(tasks.get(i));
+            } catch (ExecutionException e) {
+                unconfirmed.add(tasks.get(i));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for publisher confirms", e);
+            }
         }
+        return unconfirmed;
+    }
 
-        rabbitTemplate.convertAndSend(queueName, message);
+    private Message toMessage(Task<?> task) {
+        for (var codec : codecs) {
+            var body = codec.encode(task);
+            if (body != null) {
+                sentBytes.addAndGet(body.length);
+                return toMessage(task, body, codec.contentType());
+            }
+        }
+        throw new IllegalStateException("No codec can encode the payload of task %s".formatted(task.id()));
+    }
+
+    private static Message toMessage(Task<?> task, byte[] body, String contentType) {
+        var properties = new MessageProperties();
+        properties.setContentType(contentType);
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setMessageId(task.id());
+        return new Message(body, properties);
     }
 
+    // Declares each queue once rather than on every publish
     private void ensureQueueExists(String queueName) {
+        if (declaredQueues.contains(queueName)) {
+            return;
+        }
+
         rabbitAdmin.declareQueue(new Queue(queueName, true));
+        declaredQueues.add(queueName);
     }
 }
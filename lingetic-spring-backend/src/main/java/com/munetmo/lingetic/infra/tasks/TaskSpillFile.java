@@ -0,0 +1,190 @@
+package com.munetmo.lingetic.infra.tasks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tasks that couldn't be queued in memory, kept in a file of JSON lines until they can be published. Payloads come
+ * back as JSON trees, which serialize to the same message as the original payloads.
+ * <p>
+ * Tasks are read from the head of the file with {@link #peek} and only removed with {@link #remove} once they have
+ * been published, so a crash in between publishes them again rather than losing them. Lines that aren't a task, such
+ * as one cut short by a crash, are skipped, counted and removed along with the tasks around them.
+ */
+class TaskSpillFile {
+    record SpilledTask(String taskId, JsonNode payload, String queueName) {
+    }
+
+    /**
+     * Tasks from the head of the file, and the number of lines they and the skipped lines between them take up.
+     */
+    record Head(List<SpilledTask> tasks, int lineCount) {
+    }
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int size;
+    private final AtomicLong unreadableLines = new AtomicLong();
+
+    TaskSpillFile(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+
+        // Tasks spilled before a restart are still there
+        try {
+            if (Files.exists(path)) {
+                var content = Files.readString(path, StandardCharsets.UTF_8);
+                size = (int) content.lines().filter(line -> !line.isBlank()).count();
+                // Ends a line cut short by a crash, so the next task isn't appended to it
+                if (!content.isEmpty() && !content.endsWith("\n")) {
+                    Files.writeString(path, "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read task spill file %s".formatted(path), e);
+        }
+    }
+
+    /**
+     * @throws UncheckedIOException if the task couldn't be written
+     */
+    void append(String taskId, Object payload, String queueName) {
+        var task = new LinkedHashMap<String, Object>();
+        task.put("taskId", taskId);
+        task.put("payload", payload);
+        task.put("queueName", queueName);
+
+        lock.lock();
+        try {
+            var line = objectMapper.writeValueAsString(task) + "\n";
+            Files.writeString(path, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            size++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill task %s".formatted(taskId), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code maxTasks} of the oldest spilled tasks without removing them.
+     *
+     * @throws UncheckedIOException if the file couldn't be read
+     */
+    Head peek(int maxTasks) {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return new Head(List.of(), 0);
+            }
+
+            var tasks = new ArrayList<SpilledTask>(Math.min(maxTasks, size));
+            int lineCount = 0;
+            try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while (tasks.size() < maxTasks && (line = reader.readLine()) != null) {
+                    lineCount++;
+                    var task = parse(line);
+                    if (task != null) {
+                        tasks.add(task);
+                    }
+                }
+            }
+            return new Head(tasks, lineCount);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read task spill file %s".formatted(path), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the first {@code lineCount} lines, as returned by {@link #peek}. Tasks appended since are kept.
+     *
+     * @throws UncheckedIOException if the file couldn't be rewritten
+     */
+    void remove(int lineCount) {
+        if (lineCount == 0) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            var rest = path.resolveSibling(path.getFileName() + ".rest");
+            int remaining = 0;
+            try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+                    var writer = Files.newBufferedWriter(rest, StandardCharsets.UTF_8)) {
+                int skipped = 0;
+                while (skipped < lineCount && reader.readLine() != null) {
+                    skipped++;
+                }
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    writer.write(line);
+                    writer.write('\n');
+                    if (!line.isBlank()) {
+                        remaining++;
+                    }
+                }
+            }
+            if (remaining == 0) {
+                Files.delete(rest);
+                Files.delete(path);
+            } else {
+                Files.move(rest, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            size = remaining;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rewrite task spill file %s".formatted(path), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long unreadableLines() {
+        return unreadableLines.get();
+    }
+
+    private @Nullable SpilledTask parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+
+        try {
+            var node = objectMapper.readTree(line);
+            if (node.hasNonNull("taskId") && node.hasNonNull("payload") && node.hasNonNull("queueName")) {
+                return new SpilledTask(node.get("taskId").asText(), node.get("payload"), node.get("queueName").asText());
+            }
+        } catch (JsonProcessingException e) {
+            // Counted below
+        }
+        unreadableLines.incrementAndGet();
+        return null;
+    }
+}
@@ -0,0 +1,260 @@
+package com.munetmo.lingetic.lib.bitmap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints, laid out like a roaring bitmap: values are grouped by their high 16 bits,
+ * and each group's low 16 bits are kept in a sorted array while there are at most 4096 of them, or in a 65536-bit
+ * bitmap once there are more. Sparse sets cost two bytes a value and dense ones an eighth of a byte.
+ * <p>
+ * Not thread-safe.
+ */
+public final class RoaringBitmap {
+    private static final int ARRAY_MAX_SIZE = 4096;
+    private static final int CONTAINER_BITS = 1 << 16;
+
+    private sealed interface Container permits ArrayContainer, BitmapContainer {
+        boolean contains(char low);
+
+        // Returns the container to keep in this one's place, which may be a different kind
+        Container add(char low);
+
+        int cardinality();
+
+        /**
+         * The smallest value from {@code low} on that is not in the container, or {@link #CONTAINER_BITS} if there
+         * is none.
+         */
+        int nextClear(int low);
+
+        void forEach(int high, IntConsumer action);
+
+        long byteSize();
+    }
+
+    private static final class ArrayContainer implements Container {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        public Container add(char low) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+            if (index >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX_SIZE) {
+                var bitmap = new BitmapContainer();
+                for (int i = 0; i < size; i++) {
+                    bitmap.add(values[i]);
+                }
+                return bitmap.add(low);
+            }
+
+            int insertion = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_SIZE, size * 2));
+            }
+            System.arraycopy(values, insertion, values, insertion + 1, size - insertion);
+            values[insertion] = low;
+            size++;
+            return this;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public int nextClear(int low) {
+            int index = Arrays.binarySearch(values, 0, size, (char) low);
+            if (index < 0) {
+                return low;
+            }
+
+            // Walk the run of consecutive values starting at low
+            int next = low + 1;
+            for (int i = index + 1; i < size && values[i] == next; i++) {
+                next++;
+            }
+            return next;
+        }
+
+        @Override
+        public void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        public long byteSize() {
+            return 2L * values.length;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final long[] words = new long[CONTAINER_BITS / 64];
+        private int cardinality;
+
+        @Override
+        public boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        public Container add(char low) {
+            long before = words[low >>> 6];
+            words[low >>> 6] = before | (1L << low);
+            if (words[low >>> 6] != before) {
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public int nextClear(int low) {
+            int word = low >>> 6;
+            long clear = ~words[word] & (-1L << low);
+            while (clear == 0) {
+                if (++word == words.length) {
+                    return CONTAINER_BITS;
+                }
+                clear = ~words[word];
+            }
+            return word * 64 + Long.numberOfTrailingZeros(clear);
+        }
+
+        @Override
+        public void forEach(int high, IntConsumer action) {
+            for (int word = 0; word < words.length; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    action.accept(high | (word * 64 + Long.numberOfTrailingZeros(bits)));
+                    bits &= bits - 1;
+                }
+            }
+        }
+
+        @Override
+        public long byteSize() {
+            return 8L * words.length;
+        }
+    }
+
+    // Containers ordered by the high 16 bits of their values
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+
+    public boolean contains(int value) {
+        checkValue(value);
+        int index = Arrays.binarySearch(keys, high(value));
+        return index >= 0 && containers[index].contains(low(value));
+    }
+
+    public void add(int value) {
+        checkValue(value);
+        int index = Arrays.binarySearch(keys, high(value));
+        if (index < 0) {
+            index = -index - 1;
+            keys = insert(keys, index, high(value));
+            containers = insert(containers, index, new ArrayContainer());
+        }
+        containers[index] = containers[index].add(low(value));
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (var container : containers) {
+            cardinality += container.cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * The smallest non-negative int from {@code from} on that is not in the set.
+     */
+    public int nextClearBit(int from) {
+        checkValue(from);
+        int value = from;
+        int index = Arrays.binarySearch(keys, high(value));
+        if (index < 0) {
+            return value;
+        }
+
+        while (true) {
+            int next = containers[index].nextClear(low(value));
+            if (next < CONTAINER_BITS) {
+                return (value & 0xFFFF0000) | next;
+            }
+
+            // The container is full from there on; carry on at the start of the next one if it is adjacent
+            value = (high(value) + 1) << 16;
+            index++;
+            if (index == keys.length || keys[index] != high(value)) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Calls {@code action} with every value in the set, in ascending order.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Approximate heap size of the containers, in bytes.
+     */
+    public long byteSize() {
+        long byteSize = 2L * keys.length;
+        for (var container : containers) {
+            byteSize += container.byteSize();
+        }
+        return byteSize;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative");
+        }
+    }
+
+    private static char high(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    private static char[] insert(char[] array, int index, char value) {
+        var inserted = new char[array.length + 1];
+        System.arraycopy(array, 0, inserted, 0, index);
+        inserted[index] = value;
+        System.arraycopy(array, index, inserted, index + 1, array.length - index);
+        return inserted;
+    }
+
+    private static Container[] insert(Container[] array, int index, Container value) {
+        var inserted = new Container[array.length + 1];
+        System.arraycopy(array, 0, inserted, 0, index);
+        inserted[index] = value;
+        System.arraycopy(array, index, inserted, index + 1, array.length - index);
+        return inserted;
+    }
+}
@@ -0,0 +1,36 @@
+package com.munetmo.lingetic.lib.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counters of a {@link WTinyLfuCache} since it was created. Rejections are entries the admission policy kept out
+ * because they were less popular than the entry they would have evicted.
+ */
+public record CacheStats(
+    long hits,
+    long misses,
+    long evictions,
+    long rejections,
+    long entries,
+    long weightedSize,
+    long maximumWeight
+) {
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    public Map<String, Number> toMetrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("hits", hits);
+        metrics.put("misses", misses);
+        metrics.put("hitRate", hitRate());
+        metrics.put("evictions", evictions);
+        metrics.put("rejections", rejections);
+        metrics.put("entries", entries);
+        metrics.put("weightedSize", weightedSize);
+        metrics.put("maximumWeight", maximumWeight);
+        return metrics;
+    }
+}
@@ -0,0 +1,82 @@
+package com.munetmo.lingetic.lib.cache;
+
+/**
+ * Approximate access counts of recently used keys: a count-min sketch of four rows of 4-bit counters. When the
+ * number of recorded accesses reaches ten times the sketch width, every counter is halved, so keys that were
+ * popular a long time ago fade out.
+ */
+final class FrequencySketch {
+    private static final int ROWS = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int MIN_WIDTH = 16;
+    private static final int MAX_WIDTH = 1 << 20;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final byte[] counters;
+    private final int width;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long expectedEntries) {
+        int target = (int) Math.clamp(expectedEntries, MIN_WIDTH, MAX_WIDTH);
+        this.width = Integer.highestOneBit(target - 1) << 1;
+        this.counters = new byte[ROWS * width];
+        this.sampleSize = 10 * width;
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            frequency = Math.min(frequency, counters[indexOf(hash, row)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * Counts an access to {@code key}. Only the row counters holding the current minimum are incremented
+     * (conservative update), which keeps hash collisions from inflating the estimate.
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int minimum = MAX_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            minimum = Math.min(minimum, counters[indexOf(hash, row)]);
+        }
+        if (minimum == MAX_COUNT) {
+            return;
+        }
+
+        for (int row = 0; row < ROWS; row++) {
+            int index = indexOf(hash, row);
+            if (counters[index] == minimum) {
+                counters[index]++;
+            }
+        }
+
+        if (++additions == sampleSize) {
+            halve();
+        }
+    }
+
+    private void halve() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>>= 1;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        long mixed = (hash + SEEDS[row]) * SEEDS[row];
+        return row * width + ((int) (mixed >>> 32) & (width - 1));
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xED5AD4BB;
+        hash ^= hash >>> 11;
+        return hash;
+    }
+}
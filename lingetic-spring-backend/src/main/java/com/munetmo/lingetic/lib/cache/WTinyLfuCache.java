@@ -0,0 +1,316 @@
+package com.munetmo.lingetic.lib.cache;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.SequencedMap;
+import java.util.SequencedSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Weight-bounded cache with W-TinyLFU eviction, for values that don't change once loaded.
+ * <p>
+ * New entries enter a small LRU window (1% of the budget). An entry pushed out of the window joins the main
+ * space only if a {@link FrequencySketch} of recent accesses says it is used more often than the entry it would
+ * evict, so a burst of one-off reads can't flush popular content. The main space is a segmented LRU: entries
+ * read again while in probation move to the protected segment (80% of the main space), and entries pushed out of
+ * it go back to probation.
+ * <p>
+ * Operations take a lock rather than synchronizing, so virtual threads waiting for it don't pin their carrier.
+ * Loaders run outside the lock; a value loaded while {@link #invalidateAll} runs is dropped instead of cached.
+ */
+public final class WTinyLfuCache<K, V> {
+    private static final double WINDOW_FRACTION = 0.01;
+    private static final double PROTECTED_FRACTION = 0.8;
+
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+        long weigh(K key, V value);
+    }
+
+    private enum Segment { Window, Probation, Protected }
+
+    private static final class Node<V> {
+        final V value;
+        final long weight;
+        Segment segment = Segment.Window;
+
+        Node(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long mainMaximum;
+    private final long protectedMaximum;
+    private final Weigher<? super K, ? super V> weigher;
+    private final FrequencySketch sketch;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Access-ordered, least recently used first
+    private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final HashMap<K, Node<V>> nodes = new HashMap<>();
+
+    private long windowWeight;
+    private long mainWeight;
+    private long protectedWeight;
+    // Incremented by invalidateAll, so loads that started before it can tell
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+
+    /**
+     * @param expectedEntries rough number of entries that fit in the budget, used to size the frequency sketch
+     */
+    public WTinyLfuCache(long maximumWeight, long expectedEntries, Weigher<? super K, ? super V> weigher) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive");
+        }
+
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, (long) (maximumWeight * WINDOW_FRACTION));
+        this.mainMaximum = maximumWeight - windowMaximum;
+        this.protectedMaximum = (long) (mainMaximum * PROTECTED_FRACTION);
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    /**
+     * A cache bounded by the number of entries.
+     */
+    public static <K, V> WTinyLfuCache<K, V> ofMaximumSize(long maximumSize) {
+        return new WTinyLfuCache<>(maximumSize, maximumSize, (key, value) -> 1);
+    }
+
+    public @Nullable V getIfPresent(K key) {
+        lock.lock();
+        try {
+            return lookUp(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The cached value of {@code key}, or the value {@code loader} returns, which is then cached. Nothing is
+     * cached when the loader returns null.
+     */
+    public @Nullable V get(K key, Function<? super K, ? extends @Nullable V> loader) {
+        long loadGeneration;
+        lock.lock();
+        try {
+            var value = lookUp(key);
+            if (value != null) {
+                return value;
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        var loaded = loader.apply(key);
+        if (loaded != null) {
+            putIfCurrent(key, loaded, loadGeneration);
+        }
+        return loaded;
+    }
+
+    /**
+     * The values of {@code keys}, in the same order, loading every missing one with a single call to
+     * {@code loader}. Keys the loader returns no value for are left out of the result.
+     */
+    public SequencedMap<K, V> getAll(Collection<? extends K> keys,
+                                     Function<? super SequencedSet<K>, ? extends Map<K, V>> loader) {
+        var found = new HashMap<K, V>();
+        var missing = new LinkedHashSet<K>();
+        long loadGeneration;
+        lock.lock();
+        try {
+            for (var key : keys) {
+                var value = lookUp(key);
+                if (value != null) {
+                    found.put(key, value);
+                } else {
+                    missing.add(key);
+                }
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        if (!missing.isEmpty()) {
+            var loaded = loader.apply(missing);
+            for (var key : missing) {
+                var value = loaded.get(key);
+                if (value != null) {
+                    found.put(key, value);
+                    putIfCurrent(key, value, loadGeneration);
+                }
+            }
+        }
+
+        var result = new LinkedHashMap<K, V>();
+        for (var key : keys) {
+            var value = found.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            insert(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            nodes.clear();
+            windowWeight = 0;
+            mainWeight = 0;
+            protectedWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits, misses, evictions, rejections, nodes.size(), windowWeight + mainWeight,
+                    maximumWeight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private @Nullable V lookUp(K key) {
+        sketch.increment(key);
+
+        var node = nodes.get(key);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        switch (node.segment) {
+            case Window -> window.get(key);
+            case Probation -> promote(key, node);
+            case Protected -> protectedSegment.get(key);
+        }
+        return node.value;
+    }
+
+    private void putIfCurrent(K key, V value, long loadGeneration) {
+        lock.lock();
+        try {
+            if (generation == loadGeneration && !nodes.containsKey(key)) {
+                insert(key, value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void insert(K key, V value) {
+        remove(key);
+
+        long weight = weigher.weigh(key, value);
+        if (weight > mainMaximum) {
+            rejections++;
+            return;
+        }
+
+        var node = new Node<>(value, weight);
+        nodes.put(key, node);
+        window.put(key, node);
+        windowWeight += weight;
+
+        while (windowWeight > windowMaximum && !window.isEmpty()) {
+            var eldest = window.pollFirstEntry();
+            windowWeight -= eldest.getValue().weight;
+            admit(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    // Moves a candidate pushed out of the window into probation, if it is more popular than what it displaces
+    private void admit(K candidateKey, Node<V> candidate) {
+        int candidateFrequency = sketch.frequency(candidateKey);
+        while (mainWeight + candidate.weight > mainMaximum) {
+            var victim = probation.isEmpty() ? protectedSegment.firstEntry() : probation.firstEntry();
+            if (victim == null || sketch.frequency(victim.getKey()) >= candidateFrequency) {
+                nodes.remove(candidateKey);
+                rejections++;
+                return;
+            }
+
+            remove(victim.getKey());
+            evictions++;
+        }
+
+        candidate.segment = Segment.Probation;
+        probation.put(candidateKey, candidate);
+        mainWeight += candidate.weight;
+    }
+
+    private void promote(K key, Node<V> node) {
+        probation.remove(key);
+        node.segment = Segment.Protected;
+        protectedSegment.put(key, node);
+        protectedWeight += node.weight;
+
+        while (protectedWeight > protectedMaximum) {
+            var demoted = protectedSegment.pollFirstEntry();
+            protectedWeight -= demoted.getValue().weight;
+            demoted.getValue().segment = Segment.Probation;
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private void remove(K key) {
+        var node = nodes.remove(key);
+        if (node == null) {
+            return;
+        }
+
+        switch (node.segment) {
+            case Window -> {
+                window.remove(key);
+                windowWeight -= node.weight;
+            }
+            case Probation -> {
+                probation.remove(key);
+                mainWeight -= node.weight;
+            }
+            case Protected -> {
+                protectedSegment.remove(key);
+                mainWeight -= node.weight;
+                protectedWeight -= node.weight;
+            }
+        }
+    }
+}
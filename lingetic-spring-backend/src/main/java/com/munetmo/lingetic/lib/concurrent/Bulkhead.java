@@ -0,0 +1,89 @@
+package com.munetmo.lingetic.lib.concurrent;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets at most a fixed number of callers use a scarce resource at once. The rest wait in arrival order, for at most
+ * the configured time. Waiting parks the thread, which costs a virtual thread next to nothing, so many callers can
+ * queue here without holding anything else.
+ * <p>
+ * Every successful {@link #acquire} must be followed by exactly one {@link #release}.
+ */
+public final class Bulkhead {
+    public static class BulkheadFullException extends RuntimeException {
+        public BulkheadFullException(String message) {
+            super(message);
+        }
+    }
+
+    private final int limit;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong waitNanosTotal = new AtomicLong();
+    private final AtomicLong waitNanosMax = new AtomicLong();
+
+    public Bulkhead(int limit, Duration maxWait) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("maxWait must not be negative");
+        }
+
+        this.limit = limit;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(limit, true);
+    }
+
+    /**
+     * Waits until fewer than the limit of callers are in.
+     *
+     * @throws BulkheadFullException if that took longer than the maximum wait
+     */
+    public void acquire() {
+        long start = System.nanoTime();
+        boolean entered;
+        try {
+            entered = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to enter bulkhead", e);
+        }
+
+        long waited = System.nanoTime() - start;
+        waitNanosTotal.addAndGet(waited);
+        waitNanosMax.accumulateAndGet(waited, Math::max);
+        if (!entered) {
+            rejected.incrementAndGet();
+            throw new BulkheadFullException("All %d permits stayed in use for %d ms".formatted(
+                limit, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)));
+        }
+        acquired.incrementAndGet();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public Map<String, Number> toMetrics() {
+        long attempts = acquired.get() + rejected.get();
+
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("limit", limit);
+        metrics.put("inUse", limit - permits.availablePermits());
+        metrics.put("waiting", permits.getQueueLength());
+        metrics.put("acquired", acquired.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("averageWaitMillis", attempts == 0 ? 0.0 : waitNanosTotal.get() / 1e6 / attempts);
+        metrics.put("maxWaitMillis", waitNanosMax.get() / 1e6);
+        return metrics;
+    }
+}
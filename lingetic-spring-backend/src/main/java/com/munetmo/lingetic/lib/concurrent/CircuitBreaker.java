@@ -0,0 +1,116 @@
+package com.munetmo.lingetic.lib.concurrent;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stops calls to a dependency after it failed a number of times in a row, so callers stop waiting on it while it is
+ * down. Once it has been open for the configured time, the breaker lets a single trial call through: if that
+ * succeeds it closes again, and if it fails it stays open for another period.
+ * <p>
+ * Callers ask {@link #tryAcquirePermission} before each call and report its outcome with {@link #onSuccess} or
+ * {@link #onFailure}.
+ */
+public final class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    // Not synchronized, so that a virtual thread waiting for the breaker doesn't pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+
+    private final AtomicLong opens = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        if (openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("openDuration must be positive");
+        }
+
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Whether a call may go ahead now. A true return while half open is the one trial call; its outcome must be
+     * reported.
+     */
+    public boolean tryAcquirePermission() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> {
+                    return true;
+                }
+                case OPEN -> {
+                    if (System.nanoTime() - openedAtNanos >= openNanos) {
+                        state = State.HALF_OPEN;
+                        return true;
+                    }
+                }
+                case HALF_OPEN -> {
+                    // The trial call is still out
+                }
+            }
+            rejected.incrementAndGet();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        lock.lock();
+        try {
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                state = State.OPEN;
+                openedAtNanos = System.nanoTime();
+                opens.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Number> toMetrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("open", state() == State.CLOSED ? 0 : 1);
+        metrics.put("opens", opens.get());
+        metrics.put("rejected", rejected.get());
+        return metrics;
+    }
+}
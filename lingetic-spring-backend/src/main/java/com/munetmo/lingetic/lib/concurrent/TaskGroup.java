@@ -0,0 +1,153 @@
+package com.munetmo.lingetic.lib.concurrent;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs a few independent calls concurrently and waits for all of them, with a deadline: the stable-API counterpart
+ * of a {@code StructuredTaskScope} that shuts down on failure. If a call fails or the deadline passes, the calls
+ * still running are cancelled and {@link #join} throws.
+ * <p>
+ * Cancelling doesn't interrupt a call, since interrupting a thread blocked in a database driver can break the
+ * pooled connection it holds. A cancelled call runs on until it finishes or its own timeout, such as a statement
+ * query timeout, stops it, but nobody waits for its result any more.
+ * <p>
+ * Meant to be used by one thread in a try-with-resources block, so calls that are still running are cancelled:
+ * <pre>
+ * try (var group = new TaskGroup(executor, timeout)) {
+ *     var a = group.fork(() -> ...);
+ *     var b = group.fork(() -> ...);
+ *     group.join();
+ *     use(a.get(), b.get());
+ * }
+ * </pre>
+ */
+public final class TaskGroup implements AutoCloseable {
+    public static class DeadlineExceededException extends RuntimeException {
+        public DeadlineExceededException(String message) {
+            super(message);
+        }
+    }
+
+    public static final class Subtask<T> implements Supplier<T> {
+        private final Future<T> future;
+
+        private Subtask(Future<T> future) {
+            this.future = future;
+        }
+
+        /**
+         * The call's result; only available after {@link TaskGroup#join} returned.
+         */
+        @Override
+        public T get() {
+            if (future.state() != Future.State.SUCCESS) {
+                throw new IllegalStateException("Subtask has not completed successfully");
+            }
+            return future.resultNow();
+        }
+    }
+
+    private final ExecutorService executor;
+    private final long deadlineNanos;
+    private final List<Future<?>> futures = new ArrayList<>();
+    // Calls put their future here when they finish, so join sees the first failure as soon as it happens
+    private final LinkedBlockingQueue<Future<?>> finished = new LinkedBlockingQueue<>();
+
+    public TaskGroup(ExecutorService executor, Duration timeout) {
+        this.executor = executor;
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    public <T> Subtask<T> fork(Callable<T> call) {
+        var task = new FinishingTask<>(call, finished);
+        executor.execute(task);
+        futures.add(task);
+        return new Subtask<>(task);
+    }
+
+    /**
+     * Waits for all calls to finish. Rethrows the first failure, with the other calls cancelled; runtime
+     * exceptions and errors are rethrown as they are, checked exceptions wrapped in an
+     * {@link IllegalStateException}.
+     */
+    public void join() {
+        try {
+            for (int done = 0; done < futures.size(); done++) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                var future = finished.poll(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+                if (future == null) {
+                    cancelAll();
+                    throw new DeadlineExceededException("%d of %d calls did not finish in time".formatted(
+                        futures.size() - done, futures.size()));
+                }
+
+                var failure = failureOf(future);
+                if (failure != null) {
+                    cancelAll();
+                    throw failure;
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for calls", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        for (var future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    private static @Nullable RuntimeException failureOf(Future<?> future) {
+        try {
+            future.get();
+            return null;
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                return runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            return new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            // Unreachable: the future is done
+            Thread.currentThread().interrupt();
+            return new IllegalStateException(e);
+        }
+    }
+
+    private static final class FinishingTask<T> extends FutureTask<T> {
+        private final LinkedBlockingQueue<Future<?>> finished;
+
+        FinishingTask(Callable<T> call, LinkedBlockingQueue<Future<?>> finished) {
+            super(call);
+            this.finished = finished;
+        }
+
+        @Override
+        protected void done() {
+            finished.add(this);
+        }
+    }
+}
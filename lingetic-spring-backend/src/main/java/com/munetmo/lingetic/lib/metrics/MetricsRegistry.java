@@ -0,0 +1,29 @@
+package com.munetmo.lingetic.lib.metrics;
+
+import java.util.Map;
+import java.util.SequencedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Named groups of in-process metrics, each read from its source whenever a snapshot is taken.
+ */
+public class MetricsRegistry {
+    private final Map<String, Supplier<? extends Map<String, ? extends Number>>> sources = new ConcurrentHashMap<>();
+
+    public void register(String name, Supplier<? extends Map<String, ? extends Number>> source) {
+        if (sources.putIfAbsent(name, source) != null) {
+            throw new IllegalArgumentException("Metrics %s are already registered".formatted(name));
+        }
+    }
+
+    /**
+     * The current value of every registered group, sorted by name.
+     */
+    public SequencedMap<String, Map<String, ? extends Number>> snapshot() {
+        var snapshot = new TreeMap<String, Map<String, ? extends Number>>();
+        sources.forEach((name, source) -> snapshot.put(name, source.get()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,238 @@
+package com.munetmo.lingetic.lib.tasks;
+
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A small binary encoding for tasks whose payload type has a registered {@link PayloadSchema}. Other payloads aren't
+ * encoded, so they fall through to the next codec.
+ * <p>
+ * A body is the magic byte, the format version, the payload's schema tag, the payload as its schema writes it and
+ * then the task ID as its schema writes it, which by default is a string. Varints are unsigned LEB128, strings are a
+ * varint byte length followed by UTF-8, and UUIDs are 16 big-endian bytes. The magic byte can't start a JSON
+ * document, so a consumer can tell the two apart from the body alone.
+ */
+public final class CompactTaskCodec implements TaskCodec {
+    public static final String CONTENT_TYPE = "application/x-lingetic-task";
+    public static final byte MAGIC = (byte) 0xA7;
+    // Version 1 wrote the task ID as a string before the payload
+    public static final byte VERSION = 2;
+
+    private static final int HEADER_BYTES = 3;
+
+    /**
+     * How one payload type is written. The tag identifies the schema in every body, so it must never be reused for
+     * a different layout; a changed layout gets a new tag.
+     */
+    public interface PayloadSchema<T> {
+        byte tag();
+
+        Class<T> payloadType();
+
+        /**
+         * Writes {@code payload}, or returns false without writing anything if it has no compact form.
+         */
+        boolean write(T payload, Writer out);
+
+        /**
+         * @throws IllegalArgumentException if the bytes aren't a payload of this schema
+         */
+        T read(Reader in);
+
+        /**
+         * Writes the ID of a task with {@code payload}, or returns false without writing anything if it has no
+         * compact form. Schemas whose task IDs are built from the payload can write only the parts it doesn't hold.
+         */
+        default boolean writeID(String id, T payload, Writer out) {
+            out.writeString(id);
+            return true;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the bytes aren't a task ID of this schema
+         */
+        default String readID(T payload, Reader in) {
+            return in.readString();
+        }
+    }
+
+    public static final class Writer {
+        private byte[] bytes = new byte[64];
+        private int length;
+
+        private Writer() {
+        }
+
+        public void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) value;
+        }
+
+        public void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        public void writeString(String value) {
+            var utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            length += utf8.length;
+        }
+
+        public void writeUUID(UUID value) {
+            writeLong(value.getMostSignificantBits());
+            writeLong(value.getLeastSignificantBits());
+        }
+
+        private void writeLong(long value) {
+            ensureCapacity(Long.BYTES);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+
+    public static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        private Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        public int readByte() {
+            require(1);
+            return bytes[position++] & 0xFF;
+        }
+
+        public long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Invalid varint in task body");
+        }
+
+        public String readString() {
+            long length = readVarint();
+            if (length > bytes.length - position) {
+                throw new IllegalArgumentException("Task body is truncated");
+            }
+            var value = new String(bytes, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+
+        public UUID readUUID() {
+            return new UUID(readLong(), readLong());
+        }
+
+        private long readLong() {
+            require(Long.BYTES);
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (bytes[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        private void require(int count) {
+            if (count > bytes.length - position) {
+                throw new IllegalArgumentException("Task body is truncated");
+            }
+        }
+    }
+
+    private final Map<Class<?>, PayloadSchema<?>> schemasByType = new HashMap<>();
+    private final @Nullable PayloadSchema<?>[] schemasByTag = new PayloadSchema<?>[256];
+
+    public CompactTaskCodec(List<PayloadSchema<?>> schemas) {
+        for (var schema : schemas) {
+            int tag = schema.tag() & 0xFF;
+            if (schemasByTag[tag] != null) {
+                throw new IllegalArgumentException("Schema tag %d is used twice".formatted(tag));
+            }
+            if (schemasByType.put(schema.payloadType(), schema) != null) {
+                throw new IllegalArgumentException("%s has two schemas".formatted(schema.payloadType().getName()));
+            }
+            schemasByTag[tag] = schema;
+        }
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte @Nullable [] encode(Task<?> task) {
+        var schema = schemasByType.get(task.payload().getClass());
+        return schema == null ? null : encode(task, schema);
+    }
+
+    @Override
+    public <T> Task<T> decode(byte[] body, Class<T> payloadType) {
+        if (body.length < HEADER_BYTES || body[0] != MAGIC) {
+            throw new IllegalArgumentException("Task body is not in the compact format");
+        }
+        if (body[1] != VERSION) {
+            throw new IllegalArgumentException("Unsupported compact task format version %d".formatted(body[1]));
+        }
+
+        var schema = schemasByTag[body[2] & 0xFF];
+        if (schema == null || schema.payloadType() != payloadType) {
+            throw new IllegalArgumentException("Task body has schema tag %d, not one for %s".formatted(
+                body[2] & 0xFF, payloadType.getName()));
+        }
+
+        var in = new Reader(body, HEADER_BYTES);
+        var task = read(schema, in);
+        if (in.position != body.length) {
+            throw new IllegalArgumentException("Task body has trailing bytes");
+        }
+        return new Task<>(task.id(), payloadType.cast(task.payload()));
+    }
+
+    private static <T> Task<T> read(PayloadSchema<T> schema, Reader in) {
+        var payload = schema.read(in);
+        return new Task<>(schema.readID(payload, in), payload);
+    }
+
+    private static <T> byte @Nullable [] encode(Task<?> task, PayloadSchema<T> schema) {
+        var out = new Writer();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(schema.tag());
+        var payload = schema.payloadType().cast(task.payload());
+        if (!schema.write(payload, out) || !schema.writeID(task.id(), payload, out)) {
+            return null;
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,25 @@
+package com.munetmo.lingetic.lib.tasks;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Turns tasks into message bodies and back. A queue can try several codecs in order and use the first that can
+ * encode a task, so a compact codec for known payloads can fall back to a general one.
+ */
+public interface TaskCodec {
+    /**
+     * The content type of the bodies this codec produces, sent along with each message.
+     */
+    String contentType();
+
+    /**
+     * The body for {@code task}, or null if this codec can't encode its payload.
+     */
+    byte @Nullable [] encode(Task<?> task);
+
+    /**
+     * @throws IllegalArgumentException if {@code body} isn't a task with a {@code payloadType} payload in this
+     *                                  codec's format
+     */
+    <T> Task<T> decode(byte[] body, Class<T> payloadType);
+}
@@ -1,6 +1,30 @@
 package com.munetmo.lingetic.lib.tasks;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface TaskQueue {
+    class SubmissionFailedException extends RuntimeException {
+        private final List<String> failedTaskIds;
+
+        public SubmissionFailedException(String message, List<String> failedTaskIds, Throwable cause) {
+            super(message, cause);
+            this.failedTaskIds = List.copyOf(failedTaskIds);
+        }
+
+        public SubmissionFailedException(String message, List<String> failedTaskIds) {
+            super(message);
+            this.failedTaskIds = List.copyOf(failedTaskIds);
+        }
+
+        /**
+         * The tasks that may not have been submitted; every other task of the batch was.
+         */
+        public List<String> failedTaskIds() {
+            return failedTaskIds;
+        }
+    }
+
     /**
      * Submit a task for asynchronous processing.
      *
@@ -10,4 +34,30 @@ public interface TaskQueue {
      * @param queueName The name of the queue to submit the task to.
      */
     <T> void submitTask(String taskId, T payload, String queueName);
+
+    /**
+     * Submit several tasks to the same queue. Implementations that can should do so in fewer round trips than
+     * submitting them one by one.
+     *
+     * @throws SubmissionFailedException listing the tasks that failed, if any did
+     */
+    default void submitTasks(List<Task<?>> tasks, String queueName) {
+        var failedTaskIds = new ArrayList<String>();
+        RuntimeException firstFailure = null;
+        for (var task : tasks) {
+            try {
+                submitTask(task.id(), task.payload(), queueName);
+            } catch (RuntimeException e) {
+                failedTaskIds.add(task.id());
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+            }
+        }
+
+        if (firstFailure != null) {
+            throw new SubmissionFailedException("Failed to submit %d of %d tasks".formatted(
+                failedTaskIds.size(), tasks.size()), failedTaskIds, firstFailure);
+        }
+    }
 }
@@ -0,0 +1,114 @@
+package com.munetmo.lingetic.lib.tokens;
+
+import org.jspecify.annotations.Nullable;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque, expiring tokens that carry a payload only this server can read or produce. A token is the payload and
+ * its expiry encrypted and authenticated with AES-256-GCM, so a client can neither read it nor change it without
+ * {@link #open} noticing. Tokens can be bound to a context, such as a user ID, and then only open in that context.
+ * <p>
+ * The layout is a version byte, a 12-byte random nonce, and the ciphertext of the expiry in epoch seconds followed
+ * by the payload, with the 16-byte tag at the end, all in unpadded URL-safe base64.
+ */
+public final class SealedTokens {
+    private static final byte VERSION = 1;
+    private static final int NONCE_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param secret shared by all instances that have to open each other's tokens; the key is derived from it
+     */
+    public SealedTokens(String secret) {
+        if (secret.isBlank()) {
+            throw new IllegalArgumentException("secret must not be blank");
+        }
+
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            this.key = new SecretKeySpec(digest, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public String seal(byte[] payload, String context, Instant expiresAt) {
+        var nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+
+        var plaintext = ByteBuffer.allocate(Long.BYTES + payload.length)
+            .putLong(expiresAt.getEpochSecond())
+            .put(payload)
+            .array();
+
+        byte[] ciphertext;
+        try {
+            var cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+            cipher.updateAAD(context.getBytes(StandardCharsets.UTF_8));
+            ciphertext = cipher.doFinal(plaintext);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to seal token", e);
+        }
+
+        var token = ByteBuffer.allocate(1 + NONCE_BYTES + ciphertext.length)
+            .put(VERSION)
+            .put(nonce)
+            .put(ciphertext)
+            .array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * The payload of a token sealed for {@code context}, or null if it expired before {@code now}.
+     *
+     * @throws IllegalArgumentException if the token wasn't sealed by this key for this context, or was changed
+     */
+    public byte @Nullable [] open(String token, String context, Instant now) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Token is not valid base64");
+        }
+        if (bytes.length < 1 + NONCE_BYTES + TAG_BITS / 8 + Long.BYTES || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Token is malformed");
+        }
+
+        byte[] plaintext;
+        try {
+            var cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, bytes, 1, NONCE_BYTES));
+            cipher.updateAAD(context.getBytes(StandardCharsets.UTF_8));
+            plaintext = cipher.doFinal(bytes, 1 + NONCE_BYTES, bytes.length - 1 - NONCE_BYTES);
+        } catch (AEADBadTagException e) {
+            throw new IllegalArgumentException("Token is not authentic");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to open token", e);
+        }
+
+        var buffer = ByteBuffer.wrap(plaintext);
+        if (Instant.ofEpochSecond(buffer.getLong()).isBefore(now)) {
+            return null;
+        }
+
+        var payload = new byte[buffer.remaining()];
+        buffer.get(payload);
+        return payload;
+    }
+}
@@ -0,0 +1,13 @@
+-- Per user and language, the (difficulty, id) of the first sentence that may be unreviewed: every sentence
+-- ordered before it has been reviewed by the user
+CREATE TABLE IF NOT EXISTS sentence_frontiers (
+    user_id TEXT NOT NULL,
+    language TEXT NOT NULL REFERENCES languages(name),
+    difficulty INTEGER NOT NULL,
+    sentence_id UUID NOT NULL,
+    PRIMARY KEY (user_id, language)
+);
+
+-- Lets the search for unreviewed sentences start at a frontier and read sentences in order
+CREATE INDEX IF NOT EXISTS idx_sentences_language_difficulty_id
+ON sentences (source_language, difficulty, id);
@@ -0,0 +1,3 @@
+-- Other correct wordings of a sentence's source text, accepted when it is asked as a translation
+ALTER TABLE sentences
+ADD COLUMN IF NOT EXISTS accepted_source_texts JSONB NOT NULL DEFAULT '[]'::jsonb;
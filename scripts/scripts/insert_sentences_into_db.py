@@ -63,6 +63,7 @@ def insert_sentences(conn, sentences: List[Dict[str, Any]]):
                     sentence["translationLanguage"],
                     sentence["translationText"],
                     json.dumps(sentence.get("sourceWordExplanations", [])),
+                    json.dumps(sentence.get("acceptedSourceTexts", [])),
                 )
                 for sentence in sentences
             ]
@@ -72,11 +73,12 @@ def insert_sentences(conn, sentences: List[Dict[str, Any]]):
                 """
                 INSERT INTO sentences (
                     id, source_language, source_text, difficulty,
-                    translation_language, translation_text, source_word_explanations
+                    translation_language, translation_text, source_word_explanations,
+                    accepted_source_texts
                 ) VALUES %s
                 """,
                 values,
-                template="(%s, %s, %s, %s, %s, %s, %s)",
+                template="(%s, %s, %s, %s, %s, %s, %s, %s)",
             )
 
             conn.commit()
@@ -16,6 +16,7 @@ LANGUAGE_TO_CODE = {
     "Swedish": "sv",
     "JapaneseModifiedHepburn": "ja",
     "German": "de",
+    "Japanese": "ja",
 }
 
 
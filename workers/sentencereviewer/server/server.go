@@ -1,8 +1,10 @@
 package server
 
 import (
+	"bytes"
 	"context"
 	"encoding/json"
+	"io"
 	"log"
 	"net/http"
 	"time"
@@ -35,9 +37,20 @@ func (server *Server) ServeHTTP(writer http.ResponseWriter, request *http.Reques
 	}
 
 	defer request.Body.Close()
+	body, err := io.ReadAll(request.Body)
+	if err != nil {
+		http.Error(writer, "Failed to read payload: "+err.Error(), http.StatusBadRequest)
+		return
+	}
+
+	// The backend sends JSON unless its compact codec is on
 	var wrapper types.GenericTaskPayloadWrapper[types.SentenceReviewProcessingPayload]
-	decoder := json.NewDecoder(request.Body)
-	if err := decoder.Decode(&wrapper); err != nil {
+	if types.IsCompactTask(body) {
+		wrapper, err = types.DecodeCompactSentenceReviewTask(body)
+	} else {
+		err = json.NewDecoder(bytes.NewReader(body)).Decode(&wrapper)
+	}
+	if err != nil {
 		http.Error(writer, "Invalid payload format: "+err.Error(), http.StatusBadRequest)
 		return
 	}
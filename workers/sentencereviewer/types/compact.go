@@ -0,0 +1,137 @@
+package types
+
+import (
+	"encoding/binary"
+	"errors"
+	"fmt"
+
+	"github.com/google/uuid"
+)
+
+// Compact task bodies, as written by the backend's CompactTaskCodec: the magic byte, the format version,
+// the payload's schema tag, the payload, then the task ID. Version 1 had the task ID as a string before the
+// payload; version 2 has only the parts of it the payload doesn't hold, which for sentence reviews is the
+// epoch second as a varint. Strings are a varint length followed by UTF-8, and UUIDs are 16 big-endian bytes.
+const (
+	CompactTaskMagic   byte = 0xA7
+	CompactTaskVersion byte = 2
+
+	// Still accepted, for tasks queued by a backend that predates version 2
+	compactTaskVersion1 byte = 1
+
+	sentenceReviewProcessingPayloadTag byte = 1
+)
+
+var errTruncated = errors.New("compact task body is truncated")
+
+// IsCompactTask reports whether body is a compact task rather than JSON, which can't start with the magic byte.
+func IsCompactTask(body []byte) bool {
+	return len(body) > 0 && body[0] == CompactTaskMagic
+}
+
+func DecodeCompactSentenceReviewTask(body []byte) (GenericTaskPayloadWrapper[SentenceReviewProcessingPayload], error) {
+	var wrapper GenericTaskPayloadWrapper[SentenceReviewProcessingPayload]
+	if len(body) < 3 || body[0] != CompactTaskMagic {
+		return wrapper, errors.New("not a compact task body")
+	}
+	version := body[1]
+	if version != CompactTaskVersion && version != compactTaskVersion1 {
+		return wrapper, fmt.Errorf("unsupported compact task version %d", version)
+	}
+	if body[2] != sentenceReviewProcessingPayloadTag {
+		return wrapper, fmt.Errorf("unexpected schema tag %d", body[2])
+	}
+
+	// The task ID is only used for deduplication by the queue, so it is skipped
+	reader := compactReader{body: body, position: 3}
+	if version == compactTaskVersion1 {
+		if _, err := reader.readString(); err != nil {
+			return wrapper, err
+		}
+	}
+	userID, err := reader.readString()
+	if err != nil {
+		return wrapper, err
+	}
+	sentenceID, err := reader.readUUID()
+	if err != nil {
+		return wrapper, err
+	}
+	statusCode, err := reader.readByte()
+	if err != nil {
+		return wrapper, err
+	}
+	if version == CompactTaskVersion {
+		if _, err := reader.readUvarint(); err != nil {
+			return wrapper, err
+		}
+	}
+	if reader.position != len(body) {
+		return wrapper, errors.New("compact task body has trailing bytes")
+	}
+
+	var status AttemptStatus
+	switch statusCode {
+	case 0:
+		status = Success
+	case 1:
+		status = NearMiss
+	case 2:
+		status = Failure
+	default:
+		return wrapper, fmt.Errorf("unknown attempt status code %d", statusCode)
+	}
+
+	wrapper.Payload = SentenceReviewProcessingPayload{
+		UserID:     userID,
+		SentenceID: sentenceID.String(),
+		Status:     status,
+	}
+	return wrapper, nil
+}
+
+type compactReader struct {
+	body     []byte
+	position int
+}
+
+func (reader *compactReader) readByte() (byte, error) {
+	if reader.position >= len(reader.body) {
+		return 0, errTruncated
+	}
+	value := reader.body[reader.position]
+	reader.position++
+	return value, nil
+}
+
+func (reader *compactReader) readUvarint() (uint64, error) {
+	value, read := binary.Uvarint(reader.body[reader.position:])
+	if read <= 0 {
+		return 0, errTruncated
+	}
+	reader.position += read
+	return value, nil
+}
+
+func (reader *compactReader) readString() (string, error) {
+	length, read := binary.Uvarint(reader.body[reader.position:])
+	if read <= 0 || length > uint64(len(reader.body)-reader.position-read) {
+		return "", errTruncated
+	}
+	reader.position += read
+	value := string(reader.body[reader.position : reader.position+int(length)])
+	reader.position += int(length)
+	return value, nil
+}
+
+func (reader *compactReader) readUUID() (uuid.UUID, error) {
+	if len(reader.body)-reader.position < 16 {
+		return uuid.UUID{}, errTruncated
+	}
+	value, err := uuid.FromBytes(reader.body[reader.position : reader.position+16])
+	if err != nil {
+		return uuid.UUID{}, err
+	}
+	reader.position += 16
+	return value, nil
+}
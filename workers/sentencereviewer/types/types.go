@@ -8,8 +8,9 @@ import (
 type AttemptStatus string
 
 const (
-	Success AttemptStatus = "Success"
-	Failure AttemptStatus = "Failure"
+	Success  AttemptStatus = "Success"
+	NearMiss AttemptStatus = "NearMiss"
+	Failure  AttemptStatus = "Failure"
 )
 
 type SentenceReviewProcessingPayload struct {
@@ -25,7 +26,7 @@ func (p *SentenceReviewProcessingPayload) Validate() error {
 	if strings.TrimSpace(p.SentenceID) == "" {
 		return errors.New("sentenceId is blank")
 	}
-	if p.Status != Success && p.Status != Failure {
+	if p.Status != Success && p.Status != NearMiss && p.Status != Failure {
 		return errors.New("invalid status value")
 	}
 	return nil
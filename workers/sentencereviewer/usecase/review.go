@@ -23,6 +23,9 @@ func getQualityFromStatus(status types.AttemptStatus) (int, error) {
 	switch status {
 	case types.Success:
 		return 5, nil
+	case types.NearMiss:
+		// Recalled, but with mistakes: the interval still grows while the ease factor drops
+		return 3, nil
 	case types.Failure:
 		return 0, nil
 	}